@@ -0,0 +1,75 @@
+package org.hygorp.listmanager.entities;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskEntityBenchmark {
+    @Param({"10", "1000", "10000"})
+    private int itemCount;
+
+    private TaskEntity task;
+    private List<ItemEntity> items;
+    private int cursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        task = new TaskEntity(UUID.randomUUID(), "Benchmark task", "task with a large item set", LocalDate.now().plusDays(30));
+        items = new ArrayList<>(itemCount);
+
+        for (int i = 0; i < itemCount; i++) {
+            ItemEntity item = item(i);
+            items.add(item);
+            task.addItem(item);
+        }
+    }
+
+    @Benchmark
+    public TaskEntity addAndRemoveItem() {
+        ItemEntity item = item(itemCount);
+        task.addItem(item);
+        task.removeItem(item);
+
+        return task;
+    }
+
+    @Benchmark
+    public TaskEntity updateItem() {
+        ItemEntity saved = next();
+        task.updateItem(new ItemEntity(saved.getId(), saved.getTitle(), saved.getDescription(), saved.getPriority(), saved.getState()));
+
+        return task;
+    }
+
+    @Benchmark
+    public TaskEntity removeAndAddItem() {
+        ItemEntity item = next();
+        task.removeItem(item);
+        task.addItem(item);
+
+        return task;
+    }
+
+    private ItemEntity next() {
+        ItemEntity item = items.get(cursor);
+        cursor = (cursor + 1) % items.size();
+
+        return item;
+    }
+
+    private ItemEntity item(int index) {
+        return new ItemEntity(UUID.randomUUID(), "Item " + index, "benchmark item " + index, ItemPriorityEnum.Media, ItemStateEnum.Pendente);
+    }
+}
@@ -0,0 +1,46 @@
+package org.hygorp.listmanager.entities;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskEntitySerializationBenchmark {
+    @Param({"10", "1000"})
+    private int itemCount;
+
+    private ObjectMapper objectMapper;
+    private TaskEntity task;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modules(new JavaTimeModule(), new Hibernate6Module())
+                .build();
+
+        task = new TaskEntity(UUID.randomUUID(), "Benchmark task", "task serialized with its item graph", LocalDate.now().plusDays(30));
+        task.setCreatedAt(LocalDate.now());
+
+        for (int i = 0; i < itemCount; i++)
+            task.addItem(new ItemEntity(UUID.randomUUID(), "Item " + i, "benchmark item " + i, ItemPriorityEnum.Alta, ItemStateEnum.Fazendo));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(task);
+    }
+}
@@ -0,0 +1,115 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.ListManagerApplication;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.entities.TimeOrderedIdGenerator;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TaskIdInsertBenchmark {
+    private static final int CHUNK = 1000;
+    private static final int ITEMS_PER_TASK = 2;
+    private static final Path DATABASE_DIRECTORY = Path.of("target", "jmh-h2");
+
+    @Param({"random", "timeOrdered"})
+    private String ids;
+
+    @Param({"200000"})
+    private int preloadedTasks;
+
+    private ConfigurableApplicationContext context;
+    private TaskBatchRepository taskBatchRepository;
+    private TransactionTemplate transactionTemplate;
+    private Supplier<UUID> idSupplier;
+    private Path databaseFile;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path database = DATABASE_DIRECTORY.resolve("ids-" + ids).toAbsolutePath();
+        databaseFile = DATABASE_DIRECTORY.resolve("ids-" + ids + ".mv.db").toAbsolutePath();
+        FileSystemUtils.deleteRecursively(databaseFile);
+
+        context = new SpringApplicationBuilder(ListManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("test")
+                .properties(
+                        "spring.docker.compose.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN"
+                )
+                .run("--spring.datasource.url=jdbc:h2:file:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=8192");
+        taskBatchRepository = context.getBean(TaskBatchRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        idSupplier = ids.equals("random") ? UUID::randomUUID : TimeOrderedIdGenerator::nextId;
+
+        while (created < preloadedTasks)
+            insertChunk();
+
+        System.out.printf("%n%s ids: %d tasks preloaded, %.1f MB on disk%n", ids, created, megabytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s ids: %d tasks, %.1f MB on disk%n", ids, created, megabytes());
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHUNK)
+    public int insertChunk() {
+        List<TaskEntity> tasks = new ArrayList<>(CHUNK);
+
+        for (int i = 0; i < CHUNK; i++) {
+            TaskEntity task = new TaskEntity(idSupplier.get(), "Benchmark task " + created, "task inserted by the id benchmark", LocalDate.now().plusDays(30));
+
+            for (int j = 0; j < ITEMS_PER_TASK; j++)
+                task.addItem(new ItemEntity(idSupplier.get(), "Item " + j, "benchmark item " + j, ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+
+            task.setCreatedAt(LocalDate.now());
+            tasks.add(task);
+            created++;
+        }
+
+        transactionTemplate.executeWithoutResult(status -> taskBatchRepository.insertAll(tasks));
+
+        return tasks.size();
+    }
+
+    private double megabytes() {
+        context.getBean(JdbcTemplate.class).execute("CHECKPOINT SYNC");
+
+        try {
+            return Files.size(databaseFile) / (1024.0 * 1024.0);
+        } catch (IOException exception) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.hygorp.listmanager.services;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+    private final String date = "25-12-2024";
+
+    @Benchmark
+    public LocalDate stringToLocalDateTime() {
+        return TaskService.stringToLocalDateTime(date);
+    }
+}
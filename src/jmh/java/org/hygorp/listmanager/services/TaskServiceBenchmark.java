@@ -0,0 +1,104 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.ListManagerApplication;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.CursorPageDTO;
+import org.hygorp.listmanager.records.TaskDetailDTO;
+import org.hygorp.listmanager.records.TaskPageRequestDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+    private static final int TASKS = 1000;
+    private static final int ITEMS_PER_TASK = 5;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private final List<UUID> taskIds = new ArrayList<>(TASKS);
+    private int cursor;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ListManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("test")
+                .properties(
+                        "spring.docker.compose.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+        taskService = context.getBean(TaskService.class);
+
+        for (int i = 0; i < TASKS; i++)
+            taskIds.add(taskService.save(task(i)).getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TaskEntity findById() {
+        return taskService.findById(next());
+    }
+
+    @Benchmark
+    public TaskEntity update() {
+        UUID id = next();
+
+        return taskService.update(id, new TaskEntity(id, "Updated task " + cursor, "updated by the benchmark", LocalDate.now().plusDays(60)), null);
+    }
+
+    @Benchmark
+    public UUID saveAndDelete() {
+        UUID id = taskService.save(task(TASKS + created++)).getId();
+        taskService.delete(id);
+
+        return id;
+    }
+
+    @Benchmark
+    public CursorPageDTO<TaskDetailDTO> findAllPage() {
+        return taskService.findAll(new TaskPageRequestDTO(null, 50, true, true));
+    }
+
+    private UUID next() {
+        UUID id = taskIds.get(cursor);
+        cursor = (cursor + 1) % taskIds.size();
+
+        return id;
+    }
+
+    private TaskEntity task(int index) {
+        TaskEntity task = new TaskEntity("Benchmark task " + index, "task created by the service benchmark", LocalDate.now().plusDays(30));
+
+        for (int i = 0; i < ITEMS_PER_TASK; i++)
+            task.addItem(new ItemEntity("Item " + i, "benchmark item " + i, ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+
+        return task;
+    }
+}
@@ -0,0 +1,33 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class V7__Use_item_id_as_task_item_key extends BaseJavaMigration {
+    private static final String SELECT_KEYS =
+            "SELECT constraint_name FROM information_schema.table_constraints " +
+            "WHERE LOWER(table_name) = 'tb_task_item' AND table_schema = CURRENT_SCHEMA " +
+            "AND constraint_type IN ('PRIMARY KEY', 'UNIQUE') ORDER BY constraint_type DESC";
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        List<String> keys = new ArrayList<>();
+
+        try (Statement statement = context.getConnection().createStatement()) {
+            try (ResultSet rows = statement.executeQuery(SELECT_KEYS)) {
+                while (rows.next())
+                    keys.add(rows.getString(1));
+            }
+
+            for (String key : keys)
+                statement.execute("ALTER TABLE tb_task_item DROP CONSTRAINT \"" + key + "\"");
+
+            statement.execute("ALTER TABLE tb_task_item ADD CONSTRAINT pk_task_item PRIMARY KEY (item_id)");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.hygorp.listmanager.configurations;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfigurations {
+    public static final String TASKS = "tasks";
+    public static final String TASK_PAGES = "task-pages";
+    public static final String UNLESS_PRIMARY_ONLY = "!T(org.hygorp.listmanager.configurations.ReplicaRoutingDataSource).isPrimaryOnly()";
+}
@@ -1,6 +1,8 @@
 package org.hygorp.listmanager.configurations;
 
+import org.hygorp.listmanager.resources.TaskResource;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,6 +13,7 @@ public class CorsConfigurations implements WebMvcConfigurer {
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
                 .allowedOrigins("*")
-                .allowedMethods("OPTIONS", "GET", "POST", "PUT", "DELETE");
+                .allowedMethods("OPTIONS", "GET", "POST", "PUT", "PATCH", "DELETE")
+                .exposedHeaders(HttpHeaders.ETAG, TaskResource.IDEMPOTENT_REPLAYED);
     }
 }
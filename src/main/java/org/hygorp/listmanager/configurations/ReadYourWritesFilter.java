@@ -0,0 +1,69 @@
+package org.hygorp.listmanager.configurations;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    public static final String COOKIE = "read-primary-until";
+
+    private static final Set<String> READ_METHODS = Set.of(HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final Duration window;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = clock.millis();
+        boolean mutation = !READ_METHODS.contains(request.getMethod());
+
+        if (mutation) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+
+        ReplicaRoutingDataSource.usePrimary(mutation || primaryUntil(request) > now);
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.usePrimary(false);
+        }
+    }
+
+    private long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null)
+            return 0;
+
+        for (Cookie cookie : request.getCookies()) {
+            if (!COOKIE.equals(cookie.getName()))
+                continue;
+
+            try {
+                return Long.parseLong(cookie.getValue());
+            } catch (NumberFormatException exception) {
+                return 0;
+            }
+        }
+
+        return 0;
+    }
+}
@@ -0,0 +1,9 @@
+package org.hygorp.listmanager.configurations;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfigurations {
+}
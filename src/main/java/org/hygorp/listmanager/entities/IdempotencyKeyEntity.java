@@ -0,0 +1,34 @@
+package org.hygorp.listmanager.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+@Entity(name = "tb_idempotency_key")
+@Table(indexes = @Index(name = "idx_idempotency_key_created_at", columnList = "created_at"))
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString(exclude = "response")
+@EqualsAndHashCode(of = "idempotencyKey")
+public class IdempotencyKeyEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String response;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,43 @@
+package org.hygorp.listmanager.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+@Entity(name = "tb_item_counter")
+@IdClass(ItemCounterEntity.Key.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@ToString
+public class ItemCounterEntity implements Serializable {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ItemStateEnum state;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private ItemPriorityEnum priority;
+
+    @Column(nullable = false)
+    private long items;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private ItemStateEnum state;
+        private ItemPriorityEnum priority;
+    }
+}
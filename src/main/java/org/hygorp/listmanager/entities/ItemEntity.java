@@ -2,6 +2,7 @@ package org.hygorp.listmanager.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hygorp.listmanager.enums.ItemPriorityEnum;
 import org.hygorp.listmanager.enums.ItemStateEnum;
 
@@ -10,18 +11,21 @@ import java.io.Serializable;
 import java.util.UUID;
 
 @Entity(name = "tb_item")
+@Table(indexes = {
+        @Index(name = "idx_item_state", columnList = "state"),
+        @Index(name = "idx_item_priority", columnList = "priority")
+})
 @NoArgsConstructor
-@AllArgsConstructor
 @Getter
 @Setter
 @ToString
-@EqualsAndHashCode
+@EqualsAndHashCode(of = "id")
 public class ItemEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, length = 100)
@@ -38,6 +42,19 @@ public class ItemEntity implements Serializable {
     @Enumerated(EnumType.STRING)
     private ItemStateEnum state;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    public ItemEntity(UUID id, String title, String description, ItemPriorityEnum priority, ItemStateEnum state) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.state = state;
+    }
+
     public ItemEntity(String title, String description, ItemPriorityEnum priority, ItemStateEnum state) {
         this.title = title;
         this.description = description;
@@ -0,0 +1,16 @@
+package org.hygorp.listmanager.entities;
+
+import com.fasterxml.jackson.databind.util.StdConverter;
+import org.hibernate.Hibernate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public class LoadedItemsConverter extends StdConverter<Map<UUID, ItemEntity>, Collection<ItemEntity>> {
+    @Override
+    public Collection<ItemEntity> convert(Map<UUID, ItemEntity> items) {
+        return Hibernate.isInitialized(items) ? new ArrayList<>(items.values()) : null;
+    }
+}
@@ -1,29 +1,40 @@
 package org.hygorp.listmanager.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
 import java.io.Serial;
 import java.io.Serializable;
 import java.time.LocalDate;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
-import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Entity(name = "tb_task")
+@Table(indexes = {
+        @Index(name = "idx_task_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_task_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_task_deleted_at", columnList = "deleted_at"),
+        @Index(name = "idx_task_expired_at_expires_at", columnList = "expired_at, expires_at")
+})
+@SQLRestriction("deleted_at IS NULL")
 @NoArgsConstructor
 @AllArgsConstructor
 @Getter
 @Setter
-@ToString
+@ToString(exclude = "items")
 @EqualsAndHashCode(of = "id")
 public class TaskEntity implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @TimeOrderedId
     private UUID id;
 
     @Column(nullable = false, length = 150)
@@ -40,13 +51,28 @@ public class TaskEntity implements Serializable {
     @Column(nullable = false)
     private LocalDate expiresAt;
 
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    private LocalDateTime expiredAt;
+
+    @JsonIgnore
+    private LocalDateTime deletedAt;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinTable(
             name = "tb_task_item",
             joinColumns = @JoinColumn(name = "task_id"),
-            inverseJoinColumns = @JoinColumn(name = "item_id")
+            inverseJoinColumns = @JoinColumn(name = "item_id"),
+            indexes = @Index(name = "idx_task_item_task_id", columnList = "task_id")
     )
-    private Set<ItemEntity> items = new HashSet<>();
+    @MapKey(name = "id")
+    @Setter(AccessLevel.NONE)
+    @JsonProperty(value = "items", access = JsonProperty.Access.READ_ONLY)
+    @JsonSerialize(converter = LoadedItemsConverter.class)
+    private Map<UUID, ItemEntity> items = new LinkedHashMap<>();
 
     public TaskEntity(UUID id, String title, String description, LocalDate expiresAt) {
         this.id = id;
@@ -61,35 +87,52 @@ public class TaskEntity implements Serializable {
         this.expiresAt = expiresAt;
     }
 
+    @JsonIgnore
+    public Collection<ItemEntity> getItems() {
+        return Collections.unmodifiableCollection(items.values());
+    }
+
+    public Optional<ItemEntity> findItem(UUID itemId) {
+        return Optional.ofNullable(itemId == null ? null : items.get(itemId));
+    }
+
+    public boolean hasLoadedItems() {
+        return Hibernate.isInitialized(items);
+    }
+
     public void addItem(ItemEntity item) {
-        this.items.add(item);
+        if (item.getId() == null)
+            item.setId(TimeOrderedIdGenerator.nextId());
+
+        this.items.put(item.getId(), item);
         setUpdatedAt(LocalDate.now());
     }
 
     public void updateItem(ItemEntity item) {
-        for (ItemEntity savedItem : items) {
-            if (savedItem.getId().equals(item.getId())) {
-                if (!Objects.equals(savedItem.getTitle(), item.getTitle()) || item.getTitle() == null)
-                    savedItem.setTitle(item.getTitle());
+        ItemEntity savedItem = findItem(item.getId()).orElse(null);
 
-                if (!Objects.equals(savedItem.getDescription(), item.getDescription()) || item.getDescription() == null)
-                    savedItem.setDescription(item.getDescription());
+        if (savedItem == null)
+            return;
 
-                if (!Objects.equals(savedItem.getPriority(), item.getPriority()) || item.getPriority() == null)
-                    savedItem.setPriority(item.getPriority());
+        if (!Objects.equals(savedItem.getTitle(), item.getTitle()) || item.getTitle() == null)
+            savedItem.setTitle(item.getTitle());
 
-                if (!Objects.equals(savedItem.getState(), item.getState()) || item.getState() == null)
-                    savedItem.setState(item.getState());
+        if (!Objects.equals(savedItem.getDescription(), item.getDescription()) || item.getDescription() == null)
+            savedItem.setDescription(item.getDescription());
 
-                setUpdatedAt(LocalDate.now());
+        if (!Objects.equals(savedItem.getPriority(), item.getPriority()) || item.getPriority() == null)
+            savedItem.setPriority(item.getPriority());
 
-                return;
-            }
-        }
+        if (!Objects.equals(savedItem.getState(), item.getState()) || item.getState() == null)
+            savedItem.setState(item.getState());
+
+        setUpdatedAt(LocalDate.now());
     }
 
     public void removeItem(ItemEntity item) {
-        this.items.remove(item);
+        if (item.getId() != null)
+            this.items.remove(item.getId());
+
         setUpdatedAt(LocalDate.now());
     }
 
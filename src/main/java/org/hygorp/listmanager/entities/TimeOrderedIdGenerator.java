@@ -0,0 +1,51 @@
+package org.hygorp.listmanager.entities;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TimeOrderedIdGenerator implements BeforeExecutionGenerator {
+    private static final AtomicLong LAST_TICK = new AtomicLong();
+
+    public static UUID nextId() {
+        long now = System.currentTimeMillis() << 12;
+        long tick = LAST_TICK.updateAndGet(last -> Math.max(last + 1, now));
+
+        long mostSignificantBits = (tick >>> 12) << 16 | 0x7000L | (tick & 0xFFFL);
+        long leastSignificantBits = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static Optional<Instant> timestamp(UUID id) {
+        if (id == null || id.version() != 7)
+            return Optional.empty();
+
+        return Optional.of(Instant.ofEpochMilli(id.getMostSignificantBits() >>> 16));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        Object assignedId = session.getEntityPersister(null, owner).getIdentifier(owner, session);
+
+        return assignedId != null ? assignedId : nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+}
@@ -0,0 +1,5 @@
+package org.hygorp.listmanager.enums;
+
+public enum BatchOperationTypeEnum {
+    CreateTask, AddItem, UpdateItem, RemoveItem, ClearItems, DeleteTask
+}
@@ -0,0 +1,5 @@
+package org.hygorp.listmanager.enums;
+
+public enum TaskChangeTypeEnum {
+    TaskCreated, TaskUpdated, TaskDeleted, TaskExpired, ItemCreated, ItemUpdated, ItemDeleted, ItemsCleared, TasksImported, Resync
+}
@@ -0,0 +1,5 @@
+package org.hygorp.listmanager.enums;
+
+public enum TaskSortEnum {
+    CreatedAt, ExpiresAt
+}
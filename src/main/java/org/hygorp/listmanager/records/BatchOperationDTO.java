@@ -0,0 +1,14 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.BatchOperationTypeEnum;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+public record BatchOperationDTO(BatchOperationTypeEnum type, UUID taskId, Integer taskRef, UUID itemId,
+                                String title, String description, LocalDate expiresAt,
+                                ItemPriorityEnum priority, ItemStateEnum state, List<NewItemDTO> items) {
+}
@@ -0,0 +1,10 @@
+package org.hygorp.listmanager.records;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hygorp.listmanager.enums.BatchOperationTypeEnum;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchOperationResultDTO(int index, BatchOperationTypeEnum type, UUID taskId, UUID itemId) {
+}
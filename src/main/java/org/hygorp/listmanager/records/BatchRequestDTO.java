@@ -0,0 +1,6 @@
+package org.hygorp.listmanager.records;
+
+import java.util.List;
+
+public record BatchRequestDTO(List<BatchOperationDTO> operations) {
+}
@@ -0,0 +1,9 @@
+package org.hygorp.listmanager.records;
+
+import java.util.List;
+
+public record BatchResultDTO(List<BatchOperationResultDTO> results, boolean replayed) {
+    public BatchResultDTO replay() {
+        return new BatchResultDTO(results, true);
+    }
+}
@@ -0,0 +1,4 @@
+package org.hygorp.listmanager.records;
+
+public record BulkImportErrorDTO(int index, String title, String message) {
+}
@@ -0,0 +1,6 @@
+package org.hygorp.listmanager.records;
+
+import java.util.List;
+
+public record BulkImportResultDTO(int received, int imported, List<BulkImportErrorDTO> errors) {
+}
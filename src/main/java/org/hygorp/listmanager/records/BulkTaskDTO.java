@@ -0,0 +1,7 @@
+package org.hygorp.listmanager.records;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public record BulkTaskDTO(String title, String description, LocalDate expiresAt, List<NewItemDTO> items) {
+}
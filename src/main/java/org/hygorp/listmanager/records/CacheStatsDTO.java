@@ -0,0 +1,4 @@
+package org.hygorp.listmanager.records;
+
+public record CacheStatsDTO(String name, long size, long hits, long misses, double hitRate, long evictions) {
+}
@@ -0,0 +1,36 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+public record ItemCountDTO(ItemStateEnum state, ItemPriorityEnum priority, long count) {
+    public static long total(List<ItemCountDTO> counts) {
+        return counts.stream().mapToLong(ItemCountDTO::count).sum();
+    }
+
+    public static Map<ItemStateEnum, Long> byState(List<ItemCountDTO> counts) {
+        Map<ItemStateEnum, Long> byState = new EnumMap<>(ItemStateEnum.class);
+
+        for (ItemStateEnum state : ItemStateEnum.values())
+            byState.put(state, 0L);
+
+        counts.forEach(count -> byState.merge(count.state(), count.count(), Long::sum));
+
+        return byState;
+    }
+
+    public static Map<ItemPriorityEnum, Long> byPriority(List<ItemCountDTO> counts) {
+        Map<ItemPriorityEnum, Long> byPriority = new EnumMap<>(ItemPriorityEnum.class);
+
+        for (ItemPriorityEnum priority : ItemPriorityEnum.values())
+            byPriority.put(priority, 0L);
+
+        counts.forEach(count -> byPriority.merge(count.priority(), count.count(), Long::sum));
+
+        return byPriority;
+    }
+}
@@ -0,0 +1,14 @@
+package org.hygorp.listmanager.records;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+import java.util.UUID;
+
+public record ItemDetailDTO(@JsonIgnore UUID taskId, UUID id, String title, @JsonInclude(JsonInclude.Include.NON_NULL) String description, ItemPriorityEnum priority, ItemStateEnum state) {
+    public ItemDetailDTO(UUID taskId, UUID id, String title, ItemPriorityEnum priority, ItemStateEnum state) {
+        this(taskId, id, title, null, priority, state);
+    }
+}
@@ -0,0 +1,7 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+public record ItemPatchDTO(String title, String description, ItemPriorityEnum priority, ItemStateEnum state) {
+}
@@ -0,0 +1,29 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.TaskSortEnum;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+public record QueryCursor(TaskSortEnum sort, Sort.Direction direction, LocalDate sortValue, UUID id) {
+    public static QueryCursor decode(String cursor) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+
+        if (parts.length != 4)
+            throw new IllegalArgumentException("Malformed cursor");
+
+        return new QueryCursor(TaskSortEnum.valueOf(parts[0]), Sort.Direction.valueOf(parts[1]), LocalDate.parse(parts[2]), UUID.fromString(parts[3]));
+    }
+
+    public boolean matches(TaskQueryDTO query) {
+        return sort == query.sort() && direction == query.direction();
+    }
+
+    public String encode() {
+        String raw = sort + "|" + direction + "|" + sortValue + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
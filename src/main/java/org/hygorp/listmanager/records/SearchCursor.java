@@ -0,0 +1,24 @@
+package org.hygorp.listmanager.records;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record SearchCursor(int offset) {
+    public static final SearchCursor START = new SearchCursor(0);
+
+    public static SearchCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return START;
+
+        int offset = Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+
+        if (offset < 0)
+            throw new IllegalArgumentException("Malformed cursor");
+
+        return new SearchCursor(offset);
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Integer.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+}
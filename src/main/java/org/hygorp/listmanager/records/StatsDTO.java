@@ -0,0 +1,13 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+import java.util.List;
+import java.util.Map;
+
+public record StatsDTO(long tasks, long overdueTasks, long items, Map<ItemStateEnum, Long> itemsByState, Map<ItemPriorityEnum, Long> itemsByPriority) {
+    public static StatsDTO of(long tasks, long overdueTasks, List<ItemCountDTO> counts) {
+        return new StatsDTO(tasks, overdueTasks, ItemCountDTO.total(counts), ItemCountDTO.byState(counts), ItemCountDTO.byPriority(counts));
+    }
+}
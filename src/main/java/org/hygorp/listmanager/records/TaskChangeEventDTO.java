@@ -0,0 +1,13 @@
+package org.hygorp.listmanager.records;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TaskChangeEventDTO(TaskChangeTypeEnum type, UUID taskId, UUID itemId) {
+    public TaskChangeEventDTO(TaskChangeTypeEnum type, UUID taskId) {
+        this(type, taskId, null);
+    }
+}
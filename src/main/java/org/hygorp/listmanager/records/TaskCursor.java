@@ -0,0 +1,27 @@
+package org.hygorp.listmanager.records;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.UUID;
+
+public record TaskCursor(LocalDate createdAt, UUID id) {
+    public static final TaskCursor START = new TaskCursor(LocalDate.of(1, 1, 1), new UUID(0L, 0L));
+
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank())
+            return START;
+
+        String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+
+        if (parts.length != 2)
+            throw new IllegalArgumentException("Malformed cursor");
+
+        return new TaskCursor(LocalDate.parse(parts[0]), UUID.fromString(parts[1]));
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,12 @@
+package org.hygorp.listmanager.records;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record TaskDetailDTO(UUID id, String title, String description, LocalDate createdAt, LocalDate updatedAt, LocalDate expiresAt, LocalDateTime expiredAt, List<ItemDetailDTO> items) {
+    public static TaskDetailDTO of(TaskSummaryDTO task, List<ItemDetailDTO> items) {
+        return new TaskDetailDTO(task.id(), task.title(), task.description(), task.createdAt(), task.updatedAt(), task.expiresAt(), task.expiredAt(), items);
+    }
+}
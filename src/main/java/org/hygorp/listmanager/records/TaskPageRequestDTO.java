@@ -0,0 +1,7 @@
+package org.hygorp.listmanager.records;
+
+public record TaskPageRequestDTO(String cursor, Integer limit, boolean includeItems, boolean includeItemDescriptions, boolean matchingItemsOnly) {
+    public TaskPageRequestDTO(String cursor, Integer limit, boolean includeItems, boolean includeItemDescriptions) {
+        this(cursor, limit, includeItems, includeItemDescriptions, false);
+    }
+}
@@ -0,0 +1,29 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskSortEnum;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public record TaskQueryDTO(String title, Set<ItemStateEnum> states, Set<ItemPriorityEnum> priorities,
+                           LocalDate createdFrom, LocalDate createdTo, LocalDate expiresFrom, LocalDate expiresTo,
+                           TaskSortEnum sort, Sort.Direction direction) {
+    public TaskQueryDTO {
+        title = title == null || title.isBlank() ? null : title.strip();
+        states = states == null ? Set.of() : Set.copyOf(states);
+        priorities = priorities == null ? Set.of() : Set.copyOf(priorities);
+        sort = sort == null ? TaskSortEnum.CreatedAt : sort;
+        direction = direction == null ? Sort.Direction.ASC : direction;
+    }
+
+    public boolean filtersItems() {
+        return !states.isEmpty() || !priorities.isEmpty();
+    }
+
+    public LocalDate sortValue(TaskSummaryDTO task) {
+        return sort == TaskSortEnum.ExpiresAt ? task.expiresAt() : task.createdAt();
+    }
+}
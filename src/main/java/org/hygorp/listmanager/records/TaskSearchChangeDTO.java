@@ -0,0 +1,7 @@
+package org.hygorp.listmanager.records;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TaskSearchChangeDTO(long id, UUID taskId, LocalDateTime changedAt) {
+}
@@ -0,0 +1,67 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+
+import java.util.List;
+import java.util.UUID;
+
+public sealed interface TaskSearchEventDTO {
+    List<UUID> taskIds();
+
+    static TaskSearchEventDTO of(TaskEntity task) {
+        return task.getDeletedAt() != null ? new TaskRemoved(task.getId()) : indexed(task);
+    }
+
+    static TaskIndexed indexed(TaskEntity task) {
+        List<ItemDetailDTO> items = task.hasLoadedItems()
+                ? task.getItems().stream().map(item -> toItem(task.getId(), item)).toList()
+                : null;
+
+        return new TaskIndexed(task.getId(), task.getTitle(), task.getDescription(), items);
+    }
+
+    static ItemIndexed of(UUID taskId, ItemEntity item) {
+        return new ItemIndexed(taskId, toItem(taskId, item));
+    }
+
+    private static ItemDetailDTO toItem(UUID taskId, ItemEntity item) {
+        return new ItemDetailDTO(taskId, item.getId(), item.getTitle(), item.getDescription(), item.getPriority(), item.getState());
+    }
+
+    record TaskIndexed(UUID taskId, String title, String description, List<ItemDetailDTO> items) implements TaskSearchEventDTO {
+        public List<UUID> taskIds() {
+            return List.of(taskId);
+        }
+    }
+
+    record TasksIndexed(List<TaskIndexed> tasks) implements TaskSearchEventDTO {
+        public List<UUID> taskIds() {
+            return tasks.stream().map(TaskIndexed::taskId).toList();
+        }
+    }
+
+    record TaskRemoved(UUID taskId) implements TaskSearchEventDTO {
+        public List<UUID> taskIds() {
+            return List.of(taskId);
+        }
+    }
+
+    record ItemIndexed(UUID taskId, ItemDetailDTO item) implements TaskSearchEventDTO {
+        public List<UUID> taskIds() {
+            return List.of(taskId);
+        }
+    }
+
+    record ItemRemoved(UUID taskId, UUID itemId) implements TaskSearchEventDTO {
+        public List<UUID> taskIds() {
+            return List.of(taskId);
+        }
+    }
+
+    record ItemsCleared(UUID taskId) implements TaskSearchEventDTO {
+        public List<UUID> taskIds() {
+            return List.of(taskId);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.hygorp.listmanager.records;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+public record TaskStatsDTO(UUID taskId, boolean overdue, long items, Map<ItemStateEnum, Long> itemsByState, Map<ItemPriorityEnum, Long> itemsByPriority) {
+    public static TaskStatsDTO of(TaskSummaryDTO task, List<ItemCountDTO> counts) {
+        return new TaskStatsDTO(task.id(), task.expiresAt().isBefore(LocalDate.now()), ItemCountDTO.total(counts),
+                ItemCountDTO.byState(counts), ItemCountDTO.byPriority(counts));
+    }
+}
@@ -0,0 +1,8 @@
+package org.hygorp.listmanager.records;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record TaskSummaryDTO(UUID id, String title, String description, LocalDate createdAt, LocalDate updatedAt, LocalDate expiresAt, LocalDateTime expiredAt) {
+}
@@ -0,0 +1,24 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.entities.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+    Optional<IdempotencyKeyEntity> findByIdempotencyKeyAndCreatedAtAfter(String idempotencyKey, LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM tb_idempotency_key k WHERE k.idempotencyKey = :idempotencyKey AND k.createdAt < :createdAt")
+    int deleteByIdempotencyKeyAndCreatedAtBefore(@Param("idempotencyKey") String idempotencyKey, @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM tb_idempotency_key k WHERE k.createdAt < :createdAt")
+    int deleteAllByCreatedAtBefore(@Param("createdAt") LocalDateTime createdAt);
+}
@@ -0,0 +1,33 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.entities.ItemCounterEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemCountDTO;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemCounterRepository extends JpaRepository<ItemCounterEntity, ItemCounterEntity.Key> {
+    @Query("SELECT new org.hygorp.listmanager.records.ItemCountDTO(c.state, c.priority, c.items) FROM tb_item_counter c")
+    List<ItemCountDTO> findCounts();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM tb_item_counter c")
+    List<ItemCounterEntity> findAllForUpdate();
+
+    @Modifying
+    @Query("UPDATE tb_item_counter c SET c.items = :items WHERE c.state = :state AND c.priority = :priority")
+    int set(@Param("state") ItemStateEnum state, @Param("priority") ItemPriorityEnum priority, @Param("items") long items);
+
+    @Modifying
+    @Query("UPDATE tb_item_counter c SET c.items = c.items + :delta WHERE c.state = :state AND c.priority = :priority")
+    int increment(@Param("state") ItemStateEnum state, @Param("priority") ItemPriorityEnum priority, @Param("delta") long delta);
+}
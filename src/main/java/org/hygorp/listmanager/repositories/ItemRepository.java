@@ -0,0 +1,47 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.records.ItemCountDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ItemRepository extends JpaRepository<ItemEntity, UUID> {
+    @Query("SELECT i FROM tb_task t JOIN t.items i WHERE t.id = :taskId AND i.id = :itemId")
+    Optional<ItemEntity> findByTaskIdAndId(@Param("taskId") UUID taskId, @Param("itemId") UUID itemId);
+
+    @Query("SELECT new org.hygorp.listmanager.records.ItemCountDTO(i.state, i.priority, COUNT(i)) " +
+            "FROM tb_task t JOIN t.items i GROUP BY i.state, i.priority")
+    List<ItemCountDTO> countGroupByStateAndPriority();
+
+    @Query("SELECT new org.hygorp.listmanager.records.ItemCountDTO(i.state, i.priority, COUNT(i)) " +
+            "FROM tb_task t JOIN t.items i WHERE t.id = :taskId GROUP BY i.state, i.priority")
+    List<ItemCountDTO> countByTaskIdGroupByStateAndPriority(@Param("taskId") UUID taskId);
+
+    @Query("SELECT i.id FROM tb_task t JOIN t.items i WHERE t.id = :taskId")
+    List<UUID> findIdsByTaskId(@Param("taskId") UUID taskId);
+
+    @Modifying
+    @Query(value = "INSERT INTO tb_task_item (task_id, item_id) VALUES (:taskId, :itemId)", nativeQuery = true)
+    int link(@Param("taskId") UUID taskId, @Param("itemId") UUID itemId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_task_item WHERE task_id = :taskId AND item_id = :itemId", nativeQuery = true)
+    int unlink(@Param("taskId") UUID taskId, @Param("itemId") UUID itemId);
+
+    @Modifying
+    @Query(value = "DELETE FROM tb_task_item WHERE task_id = :taskId", nativeQuery = true)
+    int unlinkAll(@Param("taskId") UUID taskId);
+
+    @Modifying
+    @Query("DELETE FROM tb_item i WHERE i.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,43 @@
+package org.hygorp.listmanager.repositories;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Repository
+public class LeaseRepository {
+    private static final String EXPIRES_AT = "LOCALTIMESTAMP + CAST(:millis AS BIGINT) * INTERVAL '0.001' SECOND";
+    private static final String UPDATE_LEASE =
+            "UPDATE tb_lease SET owner = :owner, expires_at = " + EXPIRES_AT + " " +
+            "WHERE name = :name AND (owner = :owner OR expires_at < LOCALTIMESTAMP)";
+    private static final String INSERT_LEASE =
+            "INSERT INTO tb_lease (name, owner, expires_at) VALUES (:name, :owner, " + EXPIRES_AT + ")";
+    private static final String RELEASE_LEASE =
+            "UPDATE tb_lease SET expires_at = LOCALTIMESTAMP WHERE name = :name AND owner = :owner";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public LeaseRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public boolean tryAcquire(String name, String owner, Duration duration) {
+        Map<String, Object> parameters = Map.of("name", name, "owner", owner, "millis", duration.toMillis());
+
+        if (jdbcTemplate.update(UPDATE_LEASE, parameters) > 0)
+            return true;
+
+        try {
+            return jdbcTemplate.update(INSERT_LEASE, parameters) > 0;
+        } catch (DuplicateKeyException exception) {
+            return false;
+        }
+    }
+
+    public void release(String name, String owner) {
+        jdbcTemplate.update(RELEASE_LEASE, Map.of("name", name, "owner", owner));
+    }
+}
@@ -0,0 +1,59 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.util.List;
+
+@Repository
+public class TaskBatchRepository {
+    private static final String INSERT_TASK =
+            "INSERT INTO tb_task (id, title, description, created_at, updated_at, expires_at, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_ITEM =
+            "INSERT INTO tb_item (id, title, description, priority, state, version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_TASK_ITEM =
+            "INSERT INTO tb_task_item (task_id, item_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TaskBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<TaskEntity> tasks) {
+        jdbcTemplate.batchUpdate(INSERT_TASK, tasks, tasks.size(), (statement, task) -> {
+            statement.setObject(1, task.getId());
+            statement.setString(2, task.getTitle());
+            statement.setString(3, task.getDescription());
+            statement.setDate(4, Date.valueOf(task.getCreatedAt()));
+            statement.setDate(5, task.getUpdatedAt() == null ? null : Date.valueOf(task.getUpdatedAt()));
+            statement.setDate(6, Date.valueOf(task.getExpiresAt()));
+        });
+
+        List<TaskItem> links = tasks.stream()
+                .flatMap(task -> task.getItems().stream().map(item -> new TaskItem(task, item)))
+                .toList();
+
+        if (links.isEmpty())
+            return;
+
+        jdbcTemplate.batchUpdate(INSERT_ITEM, links, links.size(), (statement, link) -> {
+            statement.setObject(1, link.item().getId());
+            statement.setString(2, link.item().getTitle());
+            statement.setString(3, link.item().getDescription());
+            statement.setString(4, link.item().getPriority().name());
+            statement.setString(5, link.item().getState().name());
+        });
+
+        jdbcTemplate.batchUpdate(INSERT_TASK_ITEM, links, links.size(), (statement, link) -> {
+            statement.setObject(1, link.task().getId());
+            statement.setObject(2, link.item().getId());
+        });
+    }
+
+    private record TaskItem(TaskEntity task, ItemEntity item) {
+    }
+}
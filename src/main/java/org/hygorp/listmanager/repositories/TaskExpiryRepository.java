@@ -0,0 +1,71 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemCountDTO;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public class TaskExpiryRepository {
+    private static final List<String> OPEN_STATES = List.of(ItemStateEnum.Pendente.name(), ItemStateEnum.Fazendo.name());
+
+    private static final String SELECT_TASK_IDS =
+            "SELECT id FROM tb_task WHERE expired_at IS NULL AND expires_at < :today AND deleted_at IS NULL " +
+            "ORDER BY expires_at FETCH FIRST :limit ROWS ONLY";
+    private static final String SELECT_OLDEST =
+            "SELECT MIN(expires_at) FROM tb_task WHERE expired_at IS NULL AND expires_at < :today AND deleted_at IS NULL";
+    private static final String UPDATE_TASKS =
+            "UPDATE tb_task SET expired_at = :expiredAt, version = version + 1 " +
+            "WHERE id IN (:ids) AND expired_at IS NULL AND expires_at < :today AND deleted_at IS NULL";
+    private static final String SELECT_MARKED_IDS =
+            "SELECT id FROM tb_task WHERE id IN (:ids) AND expired_at = :expiredAt";
+    private static final String COUNT_OPEN_ITEMS =
+            "SELECT i.state, i.priority, COUNT(*) FROM tb_item i JOIN tb_task_item ti ON ti.item_id = i.id " +
+            "WHERE ti.task_id IN (:ids) AND i.state IN (:states) GROUP BY i.state, i.priority";
+    private static final String UPDATE_OPEN_ITEMS =
+            "UPDATE tb_item SET state = :state, version = version + 1 " +
+            "WHERE id IN (SELECT ti.item_id FROM tb_task_item ti WHERE ti.task_id IN (:ids)) AND state IN (:states)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskExpiryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<UUID> findExpiredIds(LocalDate today, int limit) {
+        return jdbcTemplate.queryForList(SELECT_TASK_IDS, Map.of("today", today, "limit", limit), UUID.class);
+    }
+
+    public Optional<LocalDate> findOldestExpiresAt(LocalDate today) {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(SELECT_OLDEST, Map.of("today", today), LocalDate.class));
+    }
+
+    public List<UUID> markExpired(Collection<UUID> taskIds, LocalDate today) {
+        LocalDateTime expiredAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Map<String, Object> parameters = Map.of("ids", taskIds, "today", today, "expiredAt", expiredAt);
+
+        if (jdbcTemplate.update(UPDATE_TASKS, parameters) == 0)
+            return List.of();
+
+        return jdbcTemplate.queryForList(SELECT_MARKED_IDS, parameters, UUID.class);
+    }
+
+    public List<ItemCountDTO> countOpenItems(Collection<UUID> taskIds) {
+        return jdbcTemplate.query(COUNT_OPEN_ITEMS, Map.of("ids", taskIds, "states", OPEN_STATES), (row, rowNum) -> new ItemCountDTO(
+                ItemStateEnum.valueOf(row.getString(1)), ItemPriorityEnum.valueOf(row.getString(2)), row.getLong(3)));
+    }
+
+    public int cancelOpenItems(Collection<UUID> taskIds) {
+        return jdbcTemplate.update(UPDATE_OPEN_ITEMS, Map.of("ids", taskIds, "states", OPEN_STATES, "state", ItemStateEnum.Cancelado.name()));
+    }
+}
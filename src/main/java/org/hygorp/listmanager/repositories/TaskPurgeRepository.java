@@ -0,0 +1,54 @@
+package org.hygorp.listmanager.repositories;
+
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Repository
+public class TaskPurgeRepository {
+    private static final String SELECT_ITEM_IDS =
+            "SELECT ti.item_id FROM tb_task_item ti JOIN tb_task t ON t.id = ti.task_id " +
+            "WHERE t.deleted_at IS NOT NULL FETCH FIRST :limit ROWS ONLY";
+    private static final String DELETE_LINKS =
+            "DELETE FROM tb_task_item WHERE item_id IN (:ids)";
+    private static final String DELETE_ITEMS =
+            "DELETE FROM tb_item WHERE id IN (:ids)";
+    private static final String DELETE_TASKS =
+            "DELETE FROM tb_task WHERE id IN (SELECT t.id FROM tb_task t WHERE t.deleted_at IS NOT NULL " +
+            "AND NOT EXISTS (SELECT 1 FROM tb_task_item ti WHERE ti.task_id = t.id) FETCH FIRST :limit ROWS ONLY)";
+    private static final String COUNT_TASKS =
+            "SELECT COUNT(*) FROM tb_task WHERE deleted_at IS NOT NULL";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskPurgeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<UUID> findDeletedItemIds(int limit) {
+        return jdbcTemplate.queryForList(SELECT_ITEM_IDS, Map.of("limit", limit), UUID.class);
+    }
+
+    public int deleteItems(Collection<UUID> itemIds) {
+        if (itemIds.isEmpty())
+            return 0;
+
+        jdbcTemplate.update(DELETE_LINKS, Map.of("ids", itemIds));
+
+        return jdbcTemplate.update(DELETE_ITEMS, Map.of("ids", itemIds));
+    }
+
+    public int deleteTasks(int limit) {
+        return jdbcTemplate.update(DELETE_TASKS, Map.of("limit", limit));
+    }
+
+    public long countDeletedTasks() {
+        Long count = jdbcTemplate.queryForObject(COUNT_TASKS, Map.of(), Long.class);
+
+        return count == null ? 0 : count;
+    }
+}
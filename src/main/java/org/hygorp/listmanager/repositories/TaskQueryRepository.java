@@ -0,0 +1,111 @@
+package org.hygorp.listmanager.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.*;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.TaskSortEnum;
+import org.hygorp.listmanager.records.ItemDetailDTO;
+import org.hygorp.listmanager.records.QueryCursor;
+import org.hygorp.listmanager.records.TaskQueryDTO;
+import org.hygorp.listmanager.records.TaskSummaryDTO;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class TaskQueryRepository {
+    private final EntityManager entityManager;
+
+    public TaskQueryRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public List<TaskSummaryDTO> findAll(TaskQueryDTO query, Collection<UUID> titleMatches, QueryCursor after, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskSummaryDTO> criteria = builder.createQuery(TaskSummaryDTO.class);
+        Root<TaskEntity> task = criteria.from(TaskEntity.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (titleMatches != null)
+            predicates.add(task.get("id").in(titleMatches));
+
+        if (query.filtersItems()) {
+            Subquery<Integer> items = criteria.subquery(Integer.class);
+            Root<TaskEntity> correlated = items.correlate(task);
+            Join<TaskEntity, ItemEntity> item = correlated.joinMap("items");
+
+            items.select(builder.literal(1)).where(itemPredicates(builder, item, query).toArray(Predicate[]::new));
+            predicates.add(builder.exists(items));
+        }
+
+        range(builder, predicates, task.get("createdAt"), query.createdFrom(), query.createdTo());
+        range(builder, predicates, task.get("expiresAt"), query.expiresFrom(), query.expiresTo());
+
+        Path<LocalDate> sortKey = task.get(query.sort() == TaskSortEnum.ExpiresAt ? "expiresAt" : "createdAt");
+        Path<UUID> id = task.get("id");
+        boolean ascending = query.direction() == Sort.Direction.ASC;
+
+        if (after != null) {
+            predicates.add(ascending
+                    ? builder.or(builder.greaterThan(sortKey, after.sortValue()),
+                            builder.and(builder.equal(sortKey, after.sortValue()), builder.greaterThan(id, after.id())))
+                    : builder.or(builder.lessThan(sortKey, after.sortValue()),
+                            builder.and(builder.equal(sortKey, after.sortValue()), builder.lessThan(id, after.id()))));
+        }
+
+        criteria.select(builder.construct(TaskSummaryDTO.class, task.get("id"), task.get("title"), task.get("description"),
+                        task.get("createdAt"), task.get("updatedAt"), task.get("expiresAt"), task.get("expiredAt")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(ascending
+                        ? List.of(builder.asc(sortKey), builder.asc(id))
+                        : List.of(builder.desc(sortKey), builder.desc(id)));
+
+        return entityManager.createQuery(criteria).setMaxResults(limit).getResultList();
+    }
+
+    public List<ItemDetailDTO> findItems(Collection<UUID> taskIds, TaskQueryDTO query, boolean includeDescriptions) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemDetailDTO> criteria = builder.createQuery(ItemDetailDTO.class);
+        Root<TaskEntity> task = criteria.from(TaskEntity.class);
+        Join<TaskEntity, ItemEntity> item = task.joinMap("items");
+
+        List<Predicate> predicates = itemPredicates(builder, item, query);
+        predicates.add(task.get("id").in(taskIds));
+
+        criteria.select(includeDescriptions
+                        ? builder.construct(ItemDetailDTO.class, task.get("id"), item.get("id"), item.get("title"),
+                                item.get("description"), item.get("priority"), item.get("state"))
+                        : builder.construct(ItemDetailDTO.class, task.get("id"), item.get("id"), item.get("title"),
+                                item.get("priority"), item.get("state")))
+                .where(predicates.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(criteria).getResultList();
+    }
+
+    private List<Predicate> itemPredicates(CriteriaBuilder builder, Join<TaskEntity, ItemEntity> item, TaskQueryDTO query) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (!query.states().isEmpty())
+            predicates.add(item.get("state").in(query.states()));
+
+        if (!query.priorities().isEmpty())
+            predicates.add(item.get("priority").in(query.priorities()));
+
+        return predicates;
+    }
+
+    private void range(CriteriaBuilder builder, List<Predicate> predicates, Path<LocalDate> path, LocalDate from, LocalDate to) {
+        if (from != null)
+            predicates.add(builder.greaterThanOrEqualTo(path, from));
+
+        if (to != null)
+            predicates.add(builder.lessThanOrEqualTo(path, to));
+    }
+}
@@ -1,28 +1,78 @@
 package org.hygorp.listmanager.repositories;
 
+import jakarta.persistence.LockModeType;
 import org.hygorp.listmanager.entities.TaskEntity;
 import org.hygorp.listmanager.enums.ItemPriorityEnum;
 import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemDetailDTO;
+import org.hygorp.listmanager.records.TaskSummaryDTO;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface TaskRepository extends JpaRepository<TaskEntity, UUID> {
-    List<TaskEntity> findAllByTitleContainingIgnoreCase(String title);
+    String SUMMARY = "SELECT new org.hygorp.listmanager.records.TaskSummaryDTO(t.id, t.title, t.description, t.createdAt, t.updatedAt, t.expiresAt, t.expiredAt) ";
 
-    @Query("SELECT t FROM tb_task t JOIN t.items i WHERE (:priority IS NULL OR i.priority = :priority)")
-    List<TaskEntity> findTaskByItemsPriority(@Param("priority")ItemPriorityEnum priority);
+    @Override
+    @EntityGraph(attributePaths = "items")
+    Optional<TaskEntity> findById(UUID id);
 
-    @Query("SELECT t FROM tb_task t JOIN t.items i WHERE (:state IS NULL OR i.state = :state)")
-    List<TaskEntity> findTaskByItemsState(@Param("state")ItemStateEnum state);
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @EntityGraph(attributePaths = "items")
+    Optional<TaskEntity> findForUpdateById(UUID id);
 
-    List<TaskEntity> findAllByCreatedAtAfter(LocalDate createdAt);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE tb_task t SET t.updatedAt = :updatedAt, t.version = t.version + 1 WHERE t.id = :id AND t.deletedAt IS NULL")
+    int touch(@Param("id") UUID id, @Param("updatedAt") LocalDate updatedAt);
 
-    List<TaskEntity> findAllByCreatedAtBetween(LocalDate startDate, LocalDate endDate);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE tb_task t SET t.deletedAt = :deletedAt, t.version = t.version + 1 WHERE t.id = :id AND t.deletedAt IS NULL")
+    int softDelete(@Param("id") UUID id, @Param("deletedAt") LocalDateTime deletedAt);
+
+    long countByExpiresAtBefore(LocalDate date);
+
+    @Query("SELECT new org.hygorp.listmanager.records.ItemDetailDTO(t.id, i.id, i.title, i.description, i.priority, i.state) " +
+            "FROM tb_task t JOIN t.items i WHERE t.id IN :taskIds " +
+            "AND (:priority IS NULL OR i.priority = :priority) AND (:state IS NULL OR i.state = :state)")
+    List<ItemDetailDTO> findItemsByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds, @Param("priority") ItemPriorityEnum priority, @Param("state") ItemStateEnum state);
+
+    @Query("SELECT new org.hygorp.listmanager.records.ItemDetailDTO(t.id, i.id, i.title, i.priority, i.state) " +
+            "FROM tb_task t JOIN t.items i WHERE t.id IN :taskIds " +
+            "AND (:priority IS NULL OR i.priority = :priority) AND (:state IS NULL OR i.state = :state)")
+    List<ItemDetailDTO> findItemsWithoutDescriptionByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds, @Param("priority") ItemPriorityEnum priority, @Param("state") ItemStateEnum state);
+
+    @Query(SUMMARY + "FROM tb_task t WHERE (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id")
+    List<TaskSummaryDTO> findAllAfter(@Param("createdAt") LocalDate createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY + "FROM tb_task t WHERE t.id IN :ids")
+    List<TaskSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query(SUMMARY + "FROM tb_task t WHERE EXISTS (SELECT 1 FROM t.items i WHERE :priority IS NULL OR i.priority = :priority) " +
+            "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id")
+    List<TaskSummaryDTO> findTaskByItemsPriority(@Param("priority") ItemPriorityEnum priority, @Param("createdAt") LocalDate createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY + "FROM tb_task t WHERE EXISTS (SELECT 1 FROM t.items i WHERE :state IS NULL OR i.state = :state) " +
+            "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id")
+    List<TaskSummaryDTO> findTaskByItemsState(@Param("state") ItemStateEnum state, @Param("createdAt") LocalDate createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY + "FROM tb_task t WHERE t.createdAt > :date " +
+            "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id")
+    List<TaskSummaryDTO> findAllByCreatedAtAfter(@Param("date") LocalDate date, @Param("createdAt") LocalDate createdAt, @Param("id") UUID id, Limit limit);
+
+    @Query(SUMMARY + "FROM tb_task t WHERE t.createdAt BETWEEN :startDate AND :endDate " +
+            "AND (t.createdAt, t.id) > (:createdAt, :id) ORDER BY t.createdAt, t.id")
+    List<TaskSummaryDTO> findAllByCreatedAtBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("createdAt") LocalDate createdAt, @Param("id") UUID id, Limit limit);
 }
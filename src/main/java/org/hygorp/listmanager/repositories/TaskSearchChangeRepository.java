@@ -0,0 +1,67 @@
+package org.hygorp.listmanager.repositories;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemDetailDTO;
+import org.hygorp.listmanager.records.TaskSearchChangeDTO;
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Repository
+public class TaskSearchChangeRepository {
+    private static final String INSERT_CHANGE =
+            "INSERT INTO tb_task_search_change (task_id, node, changed_at) VALUES (:taskId, :node, LOCALTIMESTAMP)";
+    private static final String SELECT_NOW = "SELECT LOCALTIMESTAMP";
+    private static final String SELECT_CHANGES =
+            "SELECT id, task_id, changed_at FROM tb_task_search_change WHERE changed_at >= :since AND node <> :node ORDER BY id";
+    private static final String DELETE_CHANGES = "DELETE FROM tb_task_search_change WHERE changed_at < :before";
+    private static final String SELECT_TASKS =
+            "SELECT id, title, description FROM tb_task WHERE id IN (:ids) AND deleted_at IS NULL";
+    private static final String SELECT_ITEMS =
+            "SELECT ti.task_id, i.id, i.title, i.description, i.priority, i.state FROM tb_task_item ti " +
+            "JOIN tb_item i ON i.id = ti.item_id WHERE ti.task_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public TaskSearchChangeRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void record(Collection<UUID> taskIds, String node) {
+        jdbcTemplate.batchUpdate(INSERT_CHANGE, taskIds.stream()
+                .map(taskId -> new MapSqlParameterSource("taskId", taskId).addValue("node", node))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    public LocalDateTime now() {
+        return jdbcTemplate.queryForObject(SELECT_NOW, Map.of(), LocalDateTime.class);
+    }
+
+    public List<TaskSearchChangeDTO> findChanges(LocalDateTime since, String node) {
+        return jdbcTemplate.query(SELECT_CHANGES, Map.of("since", since, "node", node), (row, rowNum) -> new TaskSearchChangeDTO(
+                row.getLong(1), row.getObject(2, UUID.class), row.getObject(3, LocalDateTime.class)));
+    }
+
+    public int deleteChanges(LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_CHANGES, Map.of("before", before));
+    }
+
+    public List<TaskSearchEventDTO.TaskIndexed> findTasks(Collection<UUID> taskIds) {
+        Map<UUID, List<ItemDetailDTO>> items = jdbcTemplate.query(SELECT_ITEMS, Map.of("ids", taskIds), (row, rowNum) -> new ItemDetailDTO(
+                row.getObject(1, UUID.class), row.getObject(2, UUID.class), row.getString(3), row.getString(4),
+                ItemPriorityEnum.valueOf(row.getString(5)), ItemStateEnum.valueOf(row.getString(6))
+        )).stream().collect(Collectors.groupingBy(ItemDetailDTO::taskId));
+
+        return jdbcTemplate.query(SELECT_TASKS, Map.of("ids", taskIds), (row, rowNum) -> {
+            UUID taskId = row.getObject(1, UUID.class);
+            return new TaskSearchEventDTO.TaskIndexed(taskId, row.getString(2), row.getString(3), items.getOrDefault(taskId, List.of()));
+        });
+    }
+}
@@ -0,0 +1,40 @@
+package org.hygorp.listmanager.resources;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.hygorp.listmanager.records.CacheStatsDTO;
+import org.hygorp.listmanager.services.CacheService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/caches")
+public class CacheResource {
+    private final CacheService cacheService;
+
+    public CacheResource(CacheService cacheService) {
+        this.cacheService = cacheService;
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Buscar estatísticas dos caches")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = CacheStatsDTO.class))}
+            )
+    })
+    public ResponseEntity<List<CacheStatsDTO>> stats() {
+        List<CacheStatsDTO> stats = cacheService.stats();
+
+        return ResponseEntity.status(HttpStatus.OK).body(stats);
+    }
+}
@@ -9,25 +9,72 @@ import org.hygorp.listmanager.entities.ItemEntity;
 import org.hygorp.listmanager.entities.TaskEntity;
 import org.hygorp.listmanager.enums.ItemPriorityEnum;
 import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskSortEnum;
+import org.hygorp.listmanager.records.BatchRequestDTO;
+import org.hygorp.listmanager.records.BatchResultDTO;
+import org.hygorp.listmanager.records.BulkImportResultDTO;
+import org.hygorp.listmanager.records.CursorPageDTO;
+import org.hygorp.listmanager.records.ItemPatchDTO;
 import org.hygorp.listmanager.records.NewItemDTO;
 import org.hygorp.listmanager.records.NewTaskDTO;
+import org.hygorp.listmanager.records.StatsDTO;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.hygorp.listmanager.records.TaskDetailDTO;
+import org.hygorp.listmanager.records.TaskPageRequestDTO;
+import org.hygorp.listmanager.records.TaskQueryDTO;
+import org.hygorp.listmanager.records.TaskStatsDTO;
 import org.hygorp.listmanager.records.UpdateTaskDTO;
+import org.hygorp.listmanager.services.BatchMutationService;
+import org.hygorp.listmanager.services.BulkImportService;
+import org.hygorp.listmanager.services.ItemService;
+import org.hygorp.listmanager.services.ItemStateWriteBehind;
+import org.hygorp.listmanager.services.TaskChangeFeed;
+import org.hygorp.listmanager.services.TaskExportService;
 import org.hygorp.listmanager.services.TaskService;
+import org.hygorp.listmanager.services.TaskStatsService;
 import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/v1/tasks")
 public class TaskResource {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final TaskService taskService;
+    private final ItemService itemService;
+    private final BulkImportService bulkImportService;
+    private final TaskExportService taskExportService;
+    private final TaskChangeFeed taskChangeFeed;
+    private final TaskStatsService taskStatsService;
+    private final ItemStateWriteBehind itemStateWriteBehind;
+    private final BatchMutationService batchMutationService;
 
-    public TaskResource(TaskService taskService) {
+    public TaskResource(TaskService taskService, ItemService itemService, BulkImportService bulkImportService,
+                        TaskExportService taskExportService, TaskChangeFeed taskChangeFeed, TaskStatsService taskStatsService,
+                        ItemStateWriteBehind itemStateWriteBehind, BatchMutationService batchMutationService) {
         this.taskService = taskService;
+        this.itemService = itemService;
+        this.bulkImportService = bulkImportService;
+        this.taskExportService = taskExportService;
+        this.taskChangeFeed = taskChangeFeed;
+        this.taskStatsService = taskStatsService;
+        this.itemStateWriteBehind = itemStateWriteBehind;
+        this.batchMutationService = batchMutationService;
     }
 
     @PostMapping("/save")
@@ -46,12 +93,111 @@ public class TaskResource {
                     task.expiresAt())
             );
 
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedTask);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(savedTask.getVersion())).body(savedTask);
         } catch (TaskServiceException exception) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar Tarefas e Itens em lote")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResultDTO.class))}
+            )
+    })
+    public ResponseEntity<BulkImportResultDTO> bulkImport(InputStream body) {
+        try {
+            BulkImportResultDTO result = bulkImportService.importJson(body);
+
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Importar Tarefas e Itens em lote (NDJSON)")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = BulkImportResultDTO.class))}
+            )
+    })
+    public ResponseEntity<BulkImportResultDTO> bulkImportNdjson(InputStream body) {
+        try {
+            BulkImportResultDTO result = bulkImportService.importNdjson(body);
+
+            return ResponseEntity.status(HttpStatus.OK).body(result);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Executar várias operações de Tarefas e Itens em uma única transação")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResultDTO.class))}
+            )
+    })
+    public ResponseEntity<BatchResultDTO> batch(@RequestBody BatchRequestDTO request,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            BatchResultDTO result = batchMutationService.execute(idempotencyKey, request);
+
+            return ResponseEntity.status(HttpStatus.OK)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                    .body(result);
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (TaskServiceException exception) {
+            if (exception.getMessage().equals("Idempotency key reused"))
+                return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).build();
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar todas as Tarefas e Itens (NDJSON ou CSV)")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TaskDetailDTO.class)),
+                            @Content(mediaType = "text/csv")
+                    }
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.status(HttpStatus.OK)
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.ndjson\"")
+                    .body(taskExportService::exportNdjson);
+            case "csv" -> ResponseEntity.status(HttpStatus.OK)
+                    .contentType(new MediaType("text", "csv"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks.csv\"")
+                    .body(taskExportService::exportCsv);
+            default -> ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        };
+    }
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações de Tarefas e Itens em tempo real (SSE)")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "text/event-stream", schema = @Schema(implementation = TaskChangeEventDTO.class))}
+            )
+    })
+    public ResponseEntity<SseEmitter> changes() {
+        return ResponseEntity.status(HttpStatus.OK).body(taskChangeFeed.subscribe());
+    }
+
     @PutMapping("/update/{id}")
     @Operation(summary = "Editar Tarefa")
     @ApiResponses(value = {
@@ -60,20 +206,26 @@ public class TaskResource {
                     content = { @Content(mediaType = "application/json", schema = @Schema(implementation = UpdateTaskDTO.class))}
             )
     })
-    public ResponseEntity<TaskEntity> update(@PathVariable UUID id, @RequestBody UpdateTaskDTO task) {
+    public ResponseEntity<TaskEntity> update(@PathVariable UUID id, @RequestBody UpdateTaskDTO task,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
             TaskEntity updatedTask = taskService.update(id, new TaskEntity(
                     task.id(),
                     task.title(),
                     task.description(),
                     task.expiresAt()
-            ));
+            ), expectedVersion(ifMatch));
 
-            return ResponseEntity.status(HttpStatus.OK).body(updatedTask);
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(updatedTask.getVersion())).body(updatedTask);
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (TaskServiceException exception) {
             if (exception.getMessage().equals("Invalid date"))
                 return ResponseEntity.status(HttpStatus.CONFLICT).build();
 
+            if (exception.getMessage().equals("Version conflict"))
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
@@ -100,13 +252,22 @@ public class TaskResource {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskEntity.class))}
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
             )
     })
-    public ResponseEntity<List<TaskEntity>> findAll() {
-            List<TaskEntity> tasks = taskService.findAll();
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> findAll(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(defaultValue = "true") boolean includeItems,
+                                                            @RequestParam(defaultValue = "true") boolean includeItemDescriptions) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.findAll(new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions
+            ));
 
             return ResponseEntity.status(HttpStatus.OK).body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-by-title")
@@ -114,13 +275,82 @@ public class TaskResource {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskEntity.class))}
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
+            )
+    })
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> findByTitle(@RequestParam("title") String title,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(required = false) Integer limit,
+                                                                @RequestParam(defaultValue = "true") boolean includeItems,
+                                                                @RequestParam(defaultValue = "true") boolean includeItemDescriptions) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.findByTitle(title, new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions
+            ));
+
+            return ResponseEntity.status(HttpStatus.OK).body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Pesquisar Tarefas por título e descrição das Tarefas e dos Itens")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
+            )
+    })
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> search(@RequestParam("query") String query,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(defaultValue = "true") boolean includeItems,
+                                                              @RequestParam(defaultValue = "true") boolean includeItemDescriptions) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.search(query, new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions
+            ));
+
+            return ResponseEntity.status(HttpStatus.OK).body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/query")
+    @Operation(summary = "Buscar Tarefas combinando título, status e prioridade dos Itens, intervalos de data e ordenação")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
             )
     })
-    public ResponseEntity<List<TaskEntity>> findByTitle(@RequestParam("title") String title) {
-        List<TaskEntity> tasks = taskService.findByTitle(title);
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> query(@RequestParam(required = false) String title,
+                                                             @RequestParam(required = false) Set<ItemStateEnum> state,
+                                                             @RequestParam(required = false) Set<ItemPriorityEnum> priority,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate createdFrom,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate createdTo,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate expiresFrom,
+                                                             @RequestParam(required = false) @DateTimeFormat(pattern = "dd-MM-yyyy") LocalDate expiresTo,
+                                                             @RequestParam(defaultValue = "CreatedAt") TaskSortEnum sort,
+                                                             @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(defaultValue = "true") boolean includeItems,
+                                                             @RequestParam(defaultValue = "true") boolean includeItemDescriptions,
+                                                             @RequestParam(defaultValue = "false") boolean matchingItemsOnly) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.query(new TaskQueryDTO(
+                    title, state, priority, createdFrom, createdTo, expiresFrom, expiresTo, sort, direction
+            ), new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions, matchingItemsOnly
+            ));
 
-        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+            return ResponseEntity.status(HttpStatus.OK).body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-all-by-items-priority")
@@ -128,13 +358,24 @@ public class TaskResource {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskEntity.class))}
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
             )
     })
-    public ResponseEntity<List<TaskEntity>> findAllByItemsPriority(@RequestParam ItemPriorityEnum priority) {
-        List<TaskEntity> tasks = taskService.findAllByItemsPriority(priority);
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> findAllByItemsPriority(@RequestParam ItemPriorityEnum priority,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(required = false) Integer limit,
+                                                                           @RequestParam(defaultValue = "true") boolean includeItems,
+                                                                           @RequestParam(defaultValue = "true") boolean includeItemDescriptions,
+                                                                           @RequestParam(defaultValue = "false") boolean matchingItemsOnly) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.findAllByItemsPriority(priority, new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions, matchingItemsOnly
+            ));
 
-        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+            return ResponseEntity.status(HttpStatus.OK).body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-all-by-items-state")
@@ -142,13 +383,24 @@ public class TaskResource {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskEntity.class))}
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
             )
     })
-    public ResponseEntity<List<TaskEntity>> findAllByItemsState(@RequestParam ItemStateEnum state) {
-        List<TaskEntity> tasks = taskService.findAllByItemsState(state);
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> findAllByItemsState(@RequestParam ItemStateEnum state,
+                                                                        @RequestParam(required = false) String cursor,
+                                                                        @RequestParam(required = false) Integer limit,
+                                                                        @RequestParam(defaultValue = "true") boolean includeItems,
+                                                                        @RequestParam(defaultValue = "true") boolean includeItemDescriptions,
+                                                                        @RequestParam(defaultValue = "false") boolean matchingItemsOnly) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.findAllByItemsState(state, new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions, matchingItemsOnly
+            ));
 
-        return ResponseEntity.status(HttpStatus.OK).body(tasks);
+            return ResponseEntity.status(HttpStatus.OK).body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-all-by-created-after")
@@ -156,13 +408,23 @@ public class TaskResource {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskEntity.class))}
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
             )
     })
-    public ResponseEntity<List<TaskEntity>> findAllByCreatedAfter(@RequestParam String date) {
-        List<TaskEntity> tasks = taskService.findAllByCreatedAtAfter(date);
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> findAllByCreatedAfter(@RequestParam String date,
+                                                                          @RequestParam(required = false) String cursor,
+                                                                          @RequestParam(required = false) Integer limit,
+                                                                          @RequestParam(defaultValue = "true") boolean includeItems,
+                                                                          @RequestParam(defaultValue = "true") boolean includeItemDescriptions) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.findAllByCreatedAtAfter(date, new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions
+            ));
 
-        return ResponseEntity.ok().body(tasks);
+            return ResponseEntity.ok().body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-all-by-created-between")
@@ -170,13 +432,24 @@ public class TaskResource {
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
-                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskEntity.class))}
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskDetailDTO.class))}
             )
     })
-    public ResponseEntity<List<TaskEntity>> findAllByCreatedAtBetween(@RequestParam String startDate, @RequestParam String endDate) {
-        List<TaskEntity> tasks = taskService.findAllByCreatedAtBetween(startDate, endDate);
+    public ResponseEntity<CursorPageDTO<TaskDetailDTO>> findAllByCreatedAtBetween(@RequestParam String startDate,
+                                                                              @RequestParam String endDate,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(required = false) Integer limit,
+                                                                              @RequestParam(defaultValue = "true") boolean includeItems,
+                                                                              @RequestParam(defaultValue = "true") boolean includeItemDescriptions) {
+        try {
+            CursorPageDTO<TaskDetailDTO> tasks = taskService.findAllByCreatedAtBetween(startDate, endDate, new TaskPageRequestDTO(
+                    cursor, limit, includeItems, includeItemDescriptions
+            ));
 
-        return ResponseEntity.ok().body(tasks);
+            return ResponseEntity.ok().body(tasks);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
     }
 
     @GetMapping("/find-by-id/{id}")
@@ -191,7 +464,37 @@ public class TaskResource {
         try {
             TaskEntity task = taskService.findById(id);
 
-            return ResponseEntity.status(HttpStatus.OK).body(task);
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(task.getVersion())).body(task);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Buscar estatísticas gerais das Tarefas e Itens")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = StatsDTO.class))}
+            )
+    })
+    public ResponseEntity<StatsDTO> stats() {
+        return ResponseEntity.status(HttpStatus.OK).body(taskStatsService.stats());
+    }
+
+    @GetMapping("/{id}/stats")
+    @Operation(summary = "Buscar estatísticas dos Itens de uma Tarefa")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = TaskStatsDTO.class))}
+            )
+    })
+    public ResponseEntity<TaskStatsDTO> taskStats(@PathVariable UUID id) {
+        try {
+            TaskStatsDTO stats = taskStatsService.stats(id);
+
+            return ResponseEntity.status(HttpStatus.OK).body(stats);
         } catch (TaskServiceException exception) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -213,7 +516,7 @@ public class TaskResource {
                     item.priority(),
                     item.state()
             ));
-            return ResponseEntity.status(HttpStatus.OK).body(task);
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(task.getVersion())).body(task);
         } catch (TaskServiceException exception) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -227,11 +530,17 @@ public class TaskResource {
                     content = { @Content(mediaType = "application/json", schema = @Schema(implementation = ItemEntity.class))}
             )
     })
-    public ResponseEntity<TaskEntity> updateItem(@PathVariable UUID id, @RequestBody ItemEntity item) {
+    public ResponseEntity<TaskEntity> updateItem(@PathVariable UUID id, @RequestBody ItemEntity item,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            TaskEntity task = taskService.updateItem(id, item);
-            return ResponseEntity.status(HttpStatus.OK).body(task);
+            TaskEntity task = taskService.updateItem(id, item, expectedVersion(ifMatch));
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(task.getVersion())).body(task);
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
         } catch (TaskServiceException exception) {
+            if (exception.getMessage().equals("Version conflict"))
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
@@ -247,7 +556,7 @@ public class TaskResource {
         try {
             TaskEntity task = taskService.removeItem(id, item);
 
-            return ResponseEntity.status(HttpStatus.OK).body(task);
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(task.getVersion())).body(task);
         } catch (TaskServiceException exception) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
@@ -265,9 +574,143 @@ public class TaskResource {
         try {
             TaskEntity task = taskService.clearItems(id);
 
-            return ResponseEntity.status(HttpStatus.OK).body(task);
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(task.getVersion())).body(task);
         } catch (TaskServiceException exception) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
         }
     }
+
+    @PostMapping("/{id}/items")
+    @Operation(summary = "Criar um Item em uma Tarefa")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = ItemEntity.class))}
+            )
+    })
+    public ResponseEntity<ItemEntity> createItem(@PathVariable UUID id, @RequestBody NewItemDTO item) {
+        try {
+            ItemEntity savedItem = itemService.addItem(id, new ItemEntity(
+                    item.title(),
+                    item.description(),
+                    item.priority(),
+                    item.state()
+            ));
+
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(savedItem.getVersion())).body(savedItem);
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PatchMapping("/{id}/items/{itemId}")
+    @Operation(summary = "Editar parcialmente um Item de uma Tarefa")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = ItemEntity.class))}
+            )
+    })
+    public ResponseEntity<ItemEntity> patchItem(@PathVariable UUID id, @PathVariable UUID itemId, @RequestBody ItemPatchDTO item,
+                                                @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            ItemEntity updatedItem = itemService.updateItem(id, itemId, item, expectedVersion(ifMatch));
+
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(updatedItem.getVersion())).body(updatedItem);
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (TaskServiceException exception) {
+            if (exception.getMessage().equals("Version conflict"))
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @PutMapping("/{id}/items/{itemId}/state")
+    @Operation(summary = "Atualizar o status de um Item de uma Tarefa")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    content = { @Content(mediaType = "application/json", schema = @Schema(implementation = ItemEntity.class))}
+            ),
+            @ApiResponse(
+                    responseCode = "202"
+            ),
+            @ApiResponse(
+                    responseCode = "503"
+            )
+    })
+    public ResponseEntity<ItemEntity> updateItemState(@PathVariable UUID id, @PathVariable UUID itemId, @RequestParam ItemStateEnum state) {
+        if (itemStateWriteBehind.isEnabled()) {
+            if (!itemStateWriteBehind.enqueue(id, itemId, state))
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+        }
+
+        try {
+            ItemEntity updatedItem = itemService.updateItem(id, itemId, new ItemPatchDTO(null, null, null, state), null);
+
+            return ResponseEntity.status(HttpStatus.OK).eTag(eTag(updatedItem.getVersion())).body(updatedItem);
+        } catch (OptimisticLockingFailureException exception) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/{id}/items/{itemId}")
+    @Operation(summary = "Remover um Item de uma Tarefa")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204"
+            )
+    })
+    public ResponseEntity<Void> removeItem(@PathVariable UUID id, @PathVariable UUID itemId) {
+        try {
+            itemService.removeItem(id, itemId);
+
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    @DeleteMapping("/{id}/items")
+    @Operation(summary = "Remover todos os Itens de uma Tarefa")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "204"
+            )
+    })
+    public ResponseEntity<Void> removeItems(@PathVariable UUID id) {
+        try {
+            itemService.clearItems(id);
+
+            return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+        } catch (TaskServiceException exception) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).build();
+        }
+    }
+
+    private static String eTag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*"))
+            return null;
+
+        String tag = ifMatch.trim();
+
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\""))
+            throw new TaskServiceException("Version conflict");
+
+        try {
+            return Long.valueOf(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException exception) {
+            throw new TaskServiceException("Version conflict");
+        }
+    }
 }
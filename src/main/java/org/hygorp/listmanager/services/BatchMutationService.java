@@ -0,0 +1,350 @@
+package org.hygorp.listmanager.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hygorp.listmanager.entities.IdempotencyKeyEntity;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.entities.TimeOrderedIdGenerator;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.*;
+import org.hygorp.listmanager.repositories.IdempotencyKeyRepository;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+@Service
+public class BatchMutationService {
+    public static final String LEASE = "idempotency-purge";
+
+    private final TaskRepository taskRepository;
+    private final EntityManager entityManager;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final LeaseRepository leaseRepository;
+    private final TaskStatsService taskStatsService;
+    private final CacheService cacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int maxOperations;
+    private final Duration idempotencyTtl;
+    private final boolean softDelete;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    public BatchMutationService(TaskRepository taskRepository,
+                                EntityManager entityManager,
+                                IdempotencyKeyRepository idempotencyKeyRepository,
+                                LeaseRepository leaseRepository,
+                                TaskStatsService taskStatsService,
+                                CacheService cacheService,
+                                TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${list-manager.batch.max-operations:1000}") int maxOperations,
+                                @Value("${list-manager.batch.idempotency-ttl:24h}") Duration idempotencyTtl,
+                                @Value("${list-manager.soft-delete.enabled:true}") boolean softDelete,
+                                @Value("${list-manager.batch.lease-duration:PT5M}") Duration leaseDuration) {
+        this.taskRepository = taskRepository;
+        this.entityManager = entityManager;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.leaseRepository = leaseRepository;
+        this.taskStatsService = taskStatsService;
+        this.cacheService = cacheService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.maxOperations = maxOperations;
+        this.idempotencyTtl = idempotencyTtl;
+        this.softDelete = softDelete;
+        this.leaseDuration = leaseDuration;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    public BatchResultDTO execute(String idempotencyKey, BatchRequestDTO request) {
+        if (request == null || request.operations() == null || request.operations().isEmpty())
+            throw new TaskServiceException("Invalid operations");
+
+        if (request.operations().size() > maxOperations)
+            throw new TaskServiceException("Too many operations");
+
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > 255))
+            throw new TaskServiceException("Invalid idempotency key");
+
+        String requestHash = idempotencyKey == null ? null : hash(request);
+
+        Optional<BatchResultDTO> replay = replay(idempotencyKey, requestHash);
+        if (replay.isPresent())
+            return replay.get();
+
+        Batch batch = new Batch();
+
+        try {
+            BatchResultDTO result = transactionTemplate.execute(status -> batch.apply(idempotencyKey, requestHash, request.operations()));
+            cacheService.evictTasks(batch.touched);
+
+            return result;
+        } catch (DataIntegrityViolationException exception) {
+            return replay(idempotencyKey, requestHash)
+                    .orElseThrow(() -> new TaskServiceException("Error while applying operations"));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${list-manager.batch.purge-interval:PT1H}", fixedDelayString = "${list-manager.batch.purge-interval:PT1H}")
+    public void scheduledPurgeIdempotencyKeys() {
+        purgeIdempotencyKeys();
+    }
+
+    public int purgeIdempotencyKeys() {
+        if (!leaseRepository.tryAcquire(LEASE, owner, leaseDuration))
+            return 0;
+
+        try {
+            return transactionTemplate.execute(status ->
+                    idempotencyKeyRepository.deleteAllByCreatedAtBefore(LocalDateTime.now().minus(idempotencyTtl)));
+        } finally {
+            leaseRepository.release(LEASE, owner);
+        }
+    }
+
+    private Optional<BatchResultDTO> replay(String idempotencyKey, String requestHash) {
+        if (idempotencyKey == null)
+            return Optional.empty();
+
+        return idempotencyKeyRepository.findByIdempotencyKeyAndCreatedAtAfter(idempotencyKey, LocalDateTime.now().minus(idempotencyTtl))
+                .map(saved -> {
+                    if (!saved.getRequestHash().equals(requestHash))
+                        throw new TaskServiceException("Idempotency key reused");
+
+                    try {
+                        return objectMapper.readValue(saved.getResponse(), BatchResultDTO.class).replay();
+                    } catch (JsonProcessingException exception) {
+                        throw new TaskServiceException("Error while reading stored response");
+                    }
+                });
+    }
+
+    private String hash(BatchRequestDTO request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException exception) {
+            throw new TaskServiceException("Invalid operations");
+        }
+    }
+
+    private class Batch {
+        private final Map<UUID, TaskEntity> tasks = new HashMap<>();
+        private final Set<UUID> touched = new LinkedHashSet<>();
+        private final Set<UUID> created = new HashSet<>();
+        private final Set<UUID> deleted = new HashSet<>();
+        private final List<BatchOperationResultDTO> results = new ArrayList<>();
+
+        BatchResultDTO apply(String idempotencyKey, String requestHash, List<BatchOperationDTO> operations) {
+            for (int index = 0; index < operations.size(); index++) {
+                BatchOperationDTO operation = operations.get(index);
+
+                if (operation == null || operation.type() == null)
+                    throw new TaskServiceException("Invalid operation at index " + index);
+
+                results.add(switch (operation.type()) {
+                    case CreateTask -> createTask(index, operation);
+                    case AddItem -> addItem(index, operation);
+                    case UpdateItem -> updateItem(index, operation);
+                    case RemoveItem -> removeItem(index, operation);
+                    case ClearItems -> clearItems(index, operation);
+                    case DeleteTask -> deleteTask(index, operation);
+                });
+            }
+
+            tasks.values().stream()
+                    .filter(task -> !deleted.contains(task.getId()))
+                    .map(TaskSearchEventDTO::of)
+                    .forEach(eventPublisher::publishEvent);
+            deleted.forEach(taskId -> eventPublisher.publishEvent(new TaskSearchEventDTO.TaskRemoved(taskId)));
+
+            BatchResultDTO result = new BatchResultDTO(List.copyOf(results), false);
+
+            if (idempotencyKey != null) {
+                idempotencyKeyRepository.deleteByIdempotencyKeyAndCreatedAtBefore(idempotencyKey, LocalDateTime.now().minus(idempotencyTtl));
+                idempotencyKeyRepository.saveAndFlush(new IdempotencyKeyEntity(idempotencyKey, requestHash, write(result), LocalDateTime.now()));
+            } else {
+                taskRepository.flush();
+            }
+
+            return result;
+        }
+
+        private BatchOperationResultDTO createTask(int index, BatchOperationDTO operation) {
+            if (operation.title() == null || operation.title().isBlank() || operation.title().length() > 150)
+                throw new TaskServiceException("Invalid title at index " + index);
+
+            if (operation.description() == null)
+                throw new TaskServiceException("Invalid description at index " + index);
+
+            if (operation.expiresAt() == null || operation.expiresAt().isBefore(LocalDate.now()))
+                throw new TaskServiceException("Task expired at index " + index);
+
+            TaskEntity task = new TaskEntity(operation.title(), operation.description(), operation.expiresAt());
+
+            if (operation.items() != null) {
+                for (NewItemDTO item : operation.items()) {
+                    if (item == null)
+                        throw new TaskServiceException("Invalid item at index " + index);
+
+                    task.addItem(newItem(index, item.title(), item.description(), item.priority(), item.state()));
+                }
+            }
+
+            TaskEntity savedTask = taskRepository.save(task);
+            tasks.put(savedTask.getId(), savedTask);
+            touched.add(savedTask.getId());
+            created.add(savedTask.getId());
+            taskStatsService.itemsAdded(savedTask.getItems());
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskCreated, savedTask.getId()));
+
+            return new BatchOperationResultDTO(index, operation.type(), savedTask.getId(), null);
+        }
+
+        private BatchOperationResultDTO addItem(int index, BatchOperationDTO operation) {
+            TaskEntity task = task(index, operation);
+            ItemEntity item = newItem(index, operation.title(), operation.description(), operation.priority(), operation.state());
+
+            task.addItem(item);
+            taskStatsService.itemAdded(item);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemCreated, task.getId(), item.getId()));
+
+            return new BatchOperationResultDTO(index, operation.type(), task.getId(), item.getId());
+        }
+
+        private BatchOperationResultDTO updateItem(int index, BatchOperationDTO operation) {
+            TaskEntity task = task(index, operation);
+            ItemEntity item = item(index, task, operation.itemId());
+
+            if (operation.title() != null && (operation.title().isBlank() || operation.title().length() > 100))
+                throw new TaskServiceException("Invalid item at index " + index);
+
+            ItemStateEnum previousState = item.getState();
+            ItemPriorityEnum previousPriority = item.getPriority();
+
+            if (operation.title() != null)
+                item.setTitle(operation.title());
+
+            if (operation.description() != null)
+                item.setDescription(operation.description());
+
+            if (operation.priority() != null)
+                item.setPriority(operation.priority());
+
+            if (operation.state() != null)
+                item.setState(operation.state());
+
+            task.setUpdatedAt(LocalDate.now());
+            taskStatsService.itemChanged(previousState, previousPriority, item);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemUpdated, task.getId(), item.getId()));
+
+            return new BatchOperationResultDTO(index, operation.type(), task.getId(), item.getId());
+        }
+
+        private BatchOperationResultDTO removeItem(int index, BatchOperationDTO operation) {
+            TaskEntity task = task(index, operation);
+            ItemEntity item = item(index, task, operation.itemId());
+
+            task.removeItem(item);
+            entityManager.remove(item);
+            taskStatsService.itemRemoved(item);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemDeleted, task.getId(), item.getId()));
+
+            return new BatchOperationResultDTO(index, operation.type(), task.getId(), item.getId());
+        }
+
+        private BatchOperationResultDTO clearItems(int index, BatchOperationDTO operation) {
+            TaskEntity task = task(index, operation);
+            List<ItemEntity> items = List.copyOf(task.getItems());
+
+            task.clearItems();
+            items.forEach(entityManager::remove);
+            taskStatsService.itemsRemoved(items);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemsCleared, task.getId()));
+
+            return new BatchOperationResultDTO(index, operation.type(), task.getId(), null);
+        }
+
+        private BatchOperationResultDTO deleteTask(int index, BatchOperationDTO operation) {
+            TaskEntity task = task(index, operation);
+
+            taskStatsService.itemsRemoved(task.getItems());
+
+            if (softDelete && !created.contains(task.getId()))
+                task.setDeletedAt(LocalDateTime.now());
+            else
+                entityManager.remove(task);
+
+            deleted.add(task.getId());
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskDeleted, task.getId()));
+
+            return new BatchOperationResultDTO(index, operation.type(), task.getId(), null);
+        }
+
+        private TaskEntity task(int index, BatchOperationDTO operation) {
+            UUID taskId = operation.taskId();
+
+            if (taskId == null && operation.taskRef() != null) {
+                if (operation.taskRef() < 0 || operation.taskRef() >= index)
+                    throw new TaskServiceException("Invalid task reference at index " + index);
+
+                taskId = results.get(operation.taskRef()).taskId();
+            }
+
+            if (taskId == null || deleted.contains(taskId))
+                throw new TaskServiceException("Task not found at index " + index);
+
+            UUID id = taskId;
+            TaskEntity task = tasks.computeIfAbsent(id, key -> taskRepository.findForUpdateById(key)
+                    .orElseThrow(() -> new TaskServiceException("Task not found at index " + index)));
+
+            touched.add(id);
+
+            return task;
+        }
+
+        private ItemEntity item(int index, TaskEntity task, UUID itemId) {
+            return task.findItem(itemId).orElseThrow(() -> new TaskServiceException("Item not found at index " + index));
+        }
+
+        private ItemEntity newItem(int index, String title, String description, ItemPriorityEnum priority, ItemStateEnum state) {
+            if (title == null || title.isBlank() || title.length() > 100 || description == null || priority == null || state == null)
+                throw new TaskServiceException("Invalid item at index " + index);
+
+            return new ItemEntity(TimeOrderedIdGenerator.nextId(), title, description, priority, state);
+        }
+
+        private String write(BatchResultDTO result) {
+            try {
+                return objectMapper.writeValueAsString(result);
+            } catch (JsonProcessingException exception) {
+                throw new TaskServiceException("Error while storing response");
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package org.hygorp.listmanager.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.hygorp.listmanager.configurations.CacheConfigurations;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.entities.TimeOrderedIdGenerator;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.BulkImportErrorDTO;
+import org.hygorp.listmanager.records.BulkImportResultDTO;
+import org.hygorp.listmanager.records.BulkTaskDTO;
+import org.hygorp.listmanager.records.NewItemDTO;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.hygorp.listmanager.repositories.TaskBatchRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class BulkImportService {
+    private final TaskBatchRepository taskBatchRepository;
+    private final TaskStatsService taskStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader taskReader;
+    private final int chunkSize;
+
+    public BulkImportService(TaskBatchRepository taskBatchRepository,
+                             TaskStatsService taskStatsService,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             @Value("${list-manager.bulk.chunk-size:1000}") int chunkSize) {
+        this.taskBatchRepository = taskBatchRepository;
+        this.taskStatsService = taskStatsService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.taskReader = objectMapper.readerFor(BulkTaskDTO.class);
+        this.chunkSize = chunkSize;
+    }
+
+    @CacheEvict(cacheNames = CacheConfigurations.TASK_PAGES, allEntries = true)
+    public BulkImportResultDTO importJson(InputStream body) {
+        Import result = new Import();
+
+        try (MappingIterator<BulkTaskDTO> tasks = taskReader.readValues(body)) {
+            while (tasks.hasNextValue())
+                result.add(tasks.nextValue());
+        } catch (JsonProcessingException exception) {
+            result.reject("Malformed JSON: " + exception.getOriginalMessage());
+        } catch (IOException exception) {
+            throw new TaskServiceException("Error while reading tasks");
+        }
+
+        return result.finish();
+    }
+
+    @CacheEvict(cacheNames = CacheConfigurations.TASK_PAGES, allEntries = true)
+    public BulkImportResultDTO importNdjson(InputStream body) {
+        Import result = new Import();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank())
+                    continue;
+
+                try {
+                    result.add(taskReader.readValue(line));
+                } catch (JsonProcessingException exception) {
+                    result.reject("Malformed JSON: " + exception.getOriginalMessage());
+                }
+            }
+        } catch (IOException exception) {
+            throw new TaskServiceException("Error while reading tasks");
+        }
+
+        return result.finish();
+    }
+
+    private String validate(BulkTaskDTO task) {
+        if (task.title() == null || task.title().isBlank() || task.title().length() > 150)
+            return "Invalid title";
+
+        if (task.description() == null)
+            return "Invalid description";
+
+        if (task.expiresAt() == null || task.expiresAt().isBefore(LocalDate.now()))
+            return "Task expired";
+
+        if (task.items() != null) {
+            for (NewItemDTO item : task.items()) {
+                if (item == null || item.title() == null || item.title().isBlank() || item.title().length() > 100
+                        || item.description() == null || item.priority() == null || item.state() == null)
+                    return "Invalid item";
+            }
+        }
+
+        return null;
+    }
+
+    private TaskEntity toEntity(BulkTaskDTO task) {
+        TaskEntity entity = new TaskEntity(TimeOrderedIdGenerator.nextId(), task.title(), task.description(), task.expiresAt());
+
+        if (task.items() != null) {
+            for (NewItemDTO item : task.items())
+                entity.addItem(new ItemEntity(item.title(), item.description(), item.priority(), item.state()));
+        }
+
+        entity.setCreatedAt(LocalDate.now());
+        entity.setUpdatedAt(null);
+
+        return entity;
+    }
+
+    private void insert(List<TaskEntity> tasks) {
+        taskBatchRepository.insertAll(tasks);
+        taskStatsService.itemsAdded(tasks.stream().flatMap(task -> task.getItems().stream()).toList());
+        eventPublisher.publishEvent(new TaskSearchEventDTO.TasksIndexed(tasks.stream().map(TaskSearchEventDTO::indexed).toList()));
+    }
+
+    private class Import {
+        private final List<TaskEntity> chunk = new ArrayList<>();
+        private final List<Integer> chunkIndexes = new ArrayList<>();
+        private final List<BulkImportErrorDTO> errors = new ArrayList<>();
+        private int received;
+        private int imported;
+
+        void add(BulkTaskDTO task) {
+            int index = received++;
+
+            if (task == null) {
+                errors.add(new BulkImportErrorDTO(index, null, "Empty task"));
+                return;
+            }
+
+            String error = validate(task);
+            if (error != null) {
+                errors.add(new BulkImportErrorDTO(index, task.title(), error));
+                return;
+            }
+
+            chunk.add(toEntity(task));
+            chunkIndexes.add(index);
+
+            if (chunk.size() >= chunkSize)
+                flush();
+        }
+
+        void reject(String message) {
+            errors.add(new BulkImportErrorDTO(received++, null, message));
+        }
+
+        BulkImportResultDTO finish() {
+            flush();
+
+            if (imported > 0)
+                eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TasksImported, null));
+            errors.sort(Comparator.comparingInt(BulkImportErrorDTO::index));
+
+            return new BulkImportResultDTO(received, imported, errors);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty())
+                return;
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(chunk));
+                imported += chunk.size();
+            } catch (DataAccessException exception) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    TaskEntity task = chunk.get(i);
+
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insert(List.of(task)));
+                        imported++;
+                    } catch (DataAccessException rowException) {
+                        errors.add(new BulkImportErrorDTO(chunkIndexes.get(i), task.getTitle(), "Error while saving task"));
+                    }
+                }
+            }
+
+            chunk.clear();
+            chunkIndexes.clear();
+        }
+    }
+}
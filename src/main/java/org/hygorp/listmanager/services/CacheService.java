@@ -0,0 +1,56 @@
+package org.hygorp.listmanager.services;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.hygorp.listmanager.configurations.CacheConfigurations;
+import org.hygorp.listmanager.records.CacheStatsDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class CacheService {
+    private final CacheManager cacheManager;
+
+    public CacheService(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public List<CacheStatsDTO> stats() {
+        return cacheManager.getCacheNames().stream()
+                .map(cacheManager::getCache)
+                .filter(CaffeineCache.class::isInstance)
+                .map(CaffeineCache.class::cast)
+                .map(cache -> {
+                    CacheStats stats = cache.getNativeCache().stats();
+
+                    return new CacheStatsDTO(
+                            cache.getName(),
+                            cache.getNativeCache().estimatedSize(),
+                            stats.hitCount(),
+                            stats.missCount(),
+                            stats.hitRate(),
+                            stats.evictionCount()
+                    );
+                })
+                .toList();
+    }
+
+    public void evictTasks(Collection<UUID> taskIds) {
+        if (taskIds.isEmpty())
+            return;
+
+        Cache taskCache = cacheManager.getCache(CacheConfigurations.TASKS);
+        Cache pageCache = cacheManager.getCache(CacheConfigurations.TASK_PAGES);
+
+        if (taskCache != null)
+            taskIds.forEach(taskCache::evict);
+
+        if (pageCache != null)
+            pageCache.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.configurations.CacheConfigurations;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Caching(evict = {
+        @CacheEvict(cacheNames = CacheConfigurations.TASKS, key = "#p0"),
+        @CacheEvict(cacheNames = CacheConfigurations.TASK_PAGES, allEntries = true)
+})
+public @interface EvictTaskCaches {
+}
@@ -0,0 +1,132 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TimeOrderedIdGenerator;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.ItemPatchDTO;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class ItemService {
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final TaskRepository taskRepository;
+    private final TaskStatsService taskStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ItemService(ItemRepository itemRepository, TaskRepository taskRepository,
+                       TaskStatsService taskStatsService, ApplicationEventPublisher eventPublisher) {
+        this.itemRepository = itemRepository;
+        this.taskRepository = taskRepository;
+        this.taskStatsService = taskStatsService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
+    public ItemEntity addItem(UUID taskId, ItemEntity item) {
+        if (item.getTitle() == null || item.getDescription() == null || item.getPriority() == null || item.getState() == null)
+            throw new TaskServiceException("Invalid item");
+
+        validate(item.getTitle());
+
+        touch(taskId);
+
+        item.setId(TimeOrderedIdGenerator.nextId());
+        ItemEntity savedItem = itemRepository.saveAndFlush(item);
+        itemRepository.link(taskId, savedItem.getId());
+        taskStatsService.itemAdded(savedItem);
+
+        eventPublisher.publishEvent(TaskSearchEventDTO.of(taskId, savedItem));
+        eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemCreated, taskId, savedItem.getId()));
+
+        return savedItem;
+    }
+
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
+    public ItemEntity updateItem(UUID taskId, UUID itemId, ItemPatchDTO patch, Long expectedVersion) {
+        validate(patch.title());
+
+        ItemEntity savedItem = itemRepository.findByTaskIdAndId(taskId, itemId)
+                .orElseThrow(() -> new TaskServiceException("Item not found with provided id: " + itemId));
+
+        TaskService.checkVersion(expectedVersion, savedItem.getVersion());
+
+        ItemStateEnum previousState = savedItem.getState();
+        ItemPriorityEnum previousPriority = savedItem.getPriority();
+
+        if (patch.title() != null)
+            savedItem.setTitle(patch.title());
+
+        if (patch.description() != null)
+            savedItem.setDescription(patch.description());
+
+        if (patch.priority() != null)
+            savedItem.setPriority(patch.priority());
+
+        if (patch.state() != null)
+            savedItem.setState(patch.state());
+
+        touch(taskId);
+        taskStatsService.itemChanged(previousState, previousPriority, savedItem);
+        eventPublisher.publishEvent(TaskSearchEventDTO.of(taskId, savedItem));
+        eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemUpdated, taskId, itemId));
+
+        return savedItem;
+    }
+
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
+    public void removeItem(UUID taskId, UUID itemId) {
+        if (itemRepository.unlink(taskId, itemId) == 0)
+            throw new TaskServiceException("Item not found with provided id: " + itemId);
+
+        itemRepository.findById(itemId).ifPresent(taskStatsService::itemRemoved);
+        itemRepository.deleteAllByIdIn(List.of(itemId));
+        touch(taskId);
+
+        eventPublisher.publishEvent(new TaskSearchEventDTO.ItemRemoved(taskId, itemId));
+        eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemDeleted, taskId, itemId));
+    }
+
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
+    public void clearItems(UUID taskId) {
+        touch(taskId);
+        taskStatsService.itemsRemoved(taskId);
+
+        List<UUID> itemIds = itemRepository.findIdsByTaskId(taskId);
+        itemRepository.unlinkAll(taskId);
+
+        for (int from = 0; from < itemIds.size(); from += DELETE_BATCH_SIZE)
+            itemRepository.deleteAllByIdIn(itemIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, itemIds.size())));
+
+        eventPublisher.publishEvent(new TaskSearchEventDTO.ItemsCleared(taskId));
+        eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemsCleared, taskId));
+    }
+
+    private void touch(UUID taskId) {
+        if (taskRepository.touch(taskId, LocalDate.now()) == 0)
+            throw new TaskServiceException("Task not found with provided id: " + taskId);
+    }
+
+    private void validate(String title) {
+        if (title != null && (title.isBlank() || title.length() > 100))
+            throw new TaskServiceException("Invalid item");
+    }
+}
@@ -0,0 +1,283 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ItemStateWriteBehind {
+    private static final Logger log = LoggerFactory.getLogger(ItemStateWriteBehind.class);
+
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+    private static final Duration SHUTDOWN_RETRY_DELAY = Duration.ofMillis(500);
+
+    private static final String SELECT_ITEMS =
+            "SELECT ti.task_id, i.id, i.state, i.priority FROM tb_item i " +
+            "JOIN tb_task_item ti ON ti.item_id = i.id " +
+            "JOIN tb_task t ON t.id = ti.task_id AND t.deleted_at IS NULL WHERE i.id IN (:ids)";
+    private static final String UPDATE_ITEM =
+            "UPDATE tb_item SET state = ?, version = version + 1 WHERE id = ?";
+    private static final String TOUCH_TASK =
+            "UPDATE tb_task SET updated_at = ?, version = version + 1 WHERE id = ? AND deleted_at IS NULL";
+
+    private final Map<UUID, PendingState> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskStatsService taskStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CacheService cacheService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int capacity;
+    private final ScheduledExecutorService scheduler;
+    private final Counter flushed;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Counter rejected;
+    private final Counter failures;
+    private final Counter lost;
+    private final Timer flushes;
+
+    public ItemStateWriteBehind(NamedParameterJdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                TaskStatsService taskStatsService,
+                                ApplicationEventPublisher eventPublisher,
+                                CacheService cacheService,
+                                MeterRegistry meterRegistry,
+                                @Value("${list-manager.write-behind.enabled:false}") boolean enabled,
+                                @Value("${list-manager.write-behind.flush-interval:200ms}") Duration flushInterval,
+                                @Value("${list-manager.write-behind.batch-size:500}") int batchSize,
+                                @Value("${list-manager.write-behind.capacity:10000}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.taskStatsService = taskStatsService;
+        this.eventPublisher = eventPublisher;
+        this.cacheService = cacheService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.capacity = capacity;
+        this.flushed = Counter.builder("items.write-behind.flushed")
+                .description("Item state changes written by the write-behind queue")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("items.write-behind.coalesced")
+                .description("Item state changes replaced by a newer change before being written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("items.write-behind.dropped")
+                .description("Item state changes for items that no longer belong to the task")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("items.write-behind.rejected")
+                .description("Item state changes rejected because the write-behind queue was full")
+                .register(meterRegistry);
+        this.failures = Counter.builder("items.write-behind.failures")
+                .description("Write-behind flushes that failed and were queued again")
+                .register(meterRegistry);
+        this.lost = Counter.builder("items.write-behind.lost")
+                .description("Item state changes discarded because they could not be written at shutdown")
+                .register(meterRegistry);
+        this.flushes = Timer.builder("items.write-behind.flush")
+                .description("Time spent writing a write-behind batch")
+                .register(meterRegistry);
+
+        Gauge.builder("items.write-behind.queue.depth", pending, Map::size)
+                .description("Item state changes waiting to be written")
+                .register(meterRegistry);
+
+        if (enabled) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("item-write-behind").daemon().factory());
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean enqueue(UUID taskId, UUID itemId, ItemStateEnum state) {
+        if (pending.size() >= capacity && !pending.containsKey(itemId)) {
+            rejected.increment();
+            requestFlush();
+            return false;
+        }
+
+        if (pending.put(itemId, new PendingState(taskId, itemId, state)) != null)
+            coalesced.increment();
+
+        if (pending.size() >= batchSize)
+            requestFlush();
+
+        return true;
+    }
+
+    public int depth() {
+        return pending.size();
+    }
+
+    public int flush() {
+        synchronized (flushLock) {
+            int written = 0;
+
+            while (!pending.isEmpty())
+                written += write(drain());
+
+            return written;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flush();
+                return;
+            } catch (RuntimeException exception) {
+                failures.increment();
+
+                if (attempt >= SHUTDOWN_ATTEMPTS) {
+                    int unwritten = pending.size();
+                    pending.clear();
+                    lost.increment(unwritten);
+                    log.error("Discarded {} item state changes that could not be written at shutdown", unwritten, exception);
+                    return;
+                }
+
+                log.warn("Write-behind flush failed at shutdown, retrying ({}/{})", attempt, SHUTDOWN_ATTEMPTS, exception);
+                Thread.sleep(SHUTDOWN_RETRY_DELAY.toMillis());
+            }
+        }
+    }
+
+    private void requestFlush() {
+        if (scheduler != null && !scheduler.isShutdown())
+            scheduler.execute(this::flushQuietly);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException exception) {
+            failures.increment();
+            log.warn("Write-behind flush failed, {} item state changes queued again", pending.size(), exception);
+        }
+    }
+
+    private List<PendingState> drain() {
+        List<PendingState> batch = new ArrayList<>(batchSize);
+        Iterator<UUID> itemIds = pending.keySet().iterator();
+
+        while (itemIds.hasNext() && batch.size() < batchSize) {
+            PendingState state = pending.remove(itemIds.next());
+
+            if (state != null)
+                batch.add(state);
+        }
+
+        return batch;
+    }
+
+    private int write(List<PendingState> batch) {
+        if (batch.isEmpty())
+            return 0;
+
+        try {
+            FlushedBatch flushedBatch = flushes.record(() -> transactionTemplate.execute(status -> apply(batch)));
+
+            flushed.increment(flushedBatch.written());
+            dropped.increment(flushedBatch.dropped());
+            cacheService.evictTasks(flushedBatch.tasks());
+
+            return batch.size();
+        } catch (RuntimeException exception) {
+            batch.forEach(state -> pending.putIfAbsent(state.itemId(), state));
+            throw exception;
+        }
+    }
+
+    private FlushedBatch apply(List<PendingState> batch) {
+        Map<UUID, PendingState> states = new HashMap<>();
+        batch.forEach(state -> states.put(state.itemId(), state));
+
+        List<ItemEntity> changed = new ArrayList<>();
+        Map<UUID, UUID> taskByItem = new HashMap<>();
+
+        jdbcTemplate.query(SELECT_ITEMS, Map.of("ids", states.keySet()), (resultSet) -> {
+            UUID taskId = resultSet.getObject("task_id", UUID.class);
+            UUID itemId = resultSet.getObject("id", UUID.class);
+            PendingState state = states.get(itemId);
+
+            if (!state.taskId().equals(taskId))
+                return;
+
+            ItemStateEnum previousState = ItemStateEnum.valueOf(resultSet.getString("state"));
+            ItemPriorityEnum priority = ItemPriorityEnum.valueOf(resultSet.getString("priority"));
+
+            taskByItem.put(itemId, taskId);
+
+            if (previousState != state.state()) {
+                ItemEntity item = new ItemEntity(itemId, null, null, priority, state.state());
+                taskStatsService.itemChanged(previousState, priority, item);
+                changed.add(item);
+            }
+        });
+
+        int droppedStates = batch.size() - taskByItem.size();
+
+        if (changed.isEmpty())
+            return new FlushedBatch(Set.of(), 0, droppedStates);
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPDATE_ITEM, changed, changed.size(), (statement, item) -> {
+            statement.setString(1, item.getState().name());
+            statement.setObject(2, item.getId());
+        });
+
+        Set<UUID> tasks = new LinkedHashSet<>();
+        changed.forEach(item -> tasks.add(taskByItem.get(item.getId())));
+        Date today = Date.valueOf(LocalDate.now());
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(TOUCH_TASK, tasks, tasks.size(), (statement, taskId) -> {
+            statement.setDate(1, today);
+            statement.setObject(2, taskId);
+        });
+
+        changed.forEach(item -> eventPublisher.publishEvent(
+                new TaskChangeEventDTO(TaskChangeTypeEnum.ItemUpdated, taskByItem.get(item.getId()), item.getId())));
+
+        return new FlushedBatch(tasks, changed.size(), droppedStates);
+    }
+
+    private record FlushedBatch(Set<UUID> tasks, int written, int dropped) {
+    }
+
+    private record PendingState(UUID taskId, UUID itemId, ItemStateEnum state) {
+    }
+}
@@ -0,0 +1,145 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class TaskChangeFeed {
+    private static final TaskChangeEventDTO RESYNC = new TaskChangeEventDTO(TaskChangeTypeEnum.Resync, null);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Counter overflows;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration timeout;
+
+    public TaskChangeFeed(MeterRegistry meterRegistry,
+                          @Value("${list-manager.changes.buffer-size:256}") int bufferSize,
+                          @Value("${list-manager.changes.heartbeat:15s}") Duration heartbeat,
+                          @Value("${list-manager.changes.timeout:30m}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.overflows = Counter.builder("tasks.changes.overflows")
+                .description("Subscribers that fell behind and were asked to resync")
+                .register(meterRegistry);
+
+        Gauge.builder("tasks.changes.subscribers", subscribers, Set::size)
+                .description("Open task change feed connections")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscriber.drain = executor.submit(() -> drain(subscriber));
+
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(exception -> close(subscriber));
+
+        subscribers.add(subscriber);
+        if (subscriber.drain.isDone())
+            subscribers.remove(subscriber);
+
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(TaskChangeEventDTO event) {
+        Change change = new Change(sequence.incrementAndGet(), event);
+
+        subscribers.forEach(subscriber -> subscriber.offer(change));
+    }
+
+    public int subscribers() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        executor.shutdownNow();
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Change change = subscriber.queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+
+                if (change == null) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    continue;
+                }
+
+                if (change.event() == RESYNC)
+                    subscriber.resynced();
+
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(Long.toString(change.id()))
+                        .name(change.event().type().name())
+                        .data(change.event(), MediaType.APPLICATION_JSON));
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException exception) {
+            subscriber.emitter.complete();
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.drain.cancel(true);
+    }
+
+    private record Change(long id, TaskChangeEventDTO event) {
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Change> queue;
+        private volatile Future<?> drain;
+        private boolean resyncPending;
+
+        Subscriber(SseEmitter emitter, BlockingQueue<Change> queue) {
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        synchronized void offer(Change change) {
+            if (resyncPending || queue.offer(change))
+                return;
+
+            queue.clear();
+            queue.offer(new Change(change.id(), RESYNC));
+            resyncPending = true;
+            overflows.increment();
+        }
+
+        synchronized void resynced() {
+            resyncPending = false;
+        }
+    }
+}
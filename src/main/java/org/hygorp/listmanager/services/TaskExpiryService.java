@@ -0,0 +1,138 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.ItemCountDTO;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskExpiryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class TaskExpiryService {
+    public static final String LEASE = "task-expiry";
+
+    private final TaskExpiryRepository taskExpiryRepository;
+    private final LeaseRepository leaseRepository;
+    private final TaskStatsService taskStatsService;
+    private final CacheService cacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration leaseDuration;
+    private final String owner;
+    private final AtomicLong lag = new AtomicLong();
+    private final Counter expiredTasks;
+    private final Counter cancelledItems;
+    private final Counter skipped;
+    private final Timer batches;
+
+    public TaskExpiryService(TaskExpiryRepository taskExpiryRepository,
+                             LeaseRepository leaseRepository,
+                             TaskStatsService taskStatsService,
+                             CacheService cacheService,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry,
+                             @Value("${list-manager.expiry.enabled:true}") boolean enabled,
+                             @Value("${list-manager.expiry.batch-size:500}") int batchSize,
+                             @Value("${list-manager.expiry.lease-duration:PT5M}") Duration leaseDuration) {
+        this.taskExpiryRepository = taskExpiryRepository;
+        this.leaseRepository = leaseRepository;
+        this.taskStatsService = taskStatsService;
+        this.cacheService = cacheService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.leaseDuration = leaseDuration;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.expiredTasks = Counter.builder("tasks.expiry.tasks")
+                .description("Tasks marked as expired by the expiry job")
+                .register(meterRegistry);
+        this.cancelledItems = Counter.builder("tasks.expiry.items")
+                .description("Open items cancelled because their task expired")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("tasks.expiry.skipped")
+                .description("Expiry runs skipped because another node held the lease")
+                .register(meterRegistry);
+        this.batches = Timer.builder("tasks.expiry.batch")
+                .description("Time spent expiring a batch of tasks")
+                .register(meterRegistry);
+
+        Gauge.builder("tasks.expiry.lag", lag, AtomicLong::get)
+                .description("Seconds the oldest expired task waited to be processed, as of the last run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${list-manager.expiry.interval:PT1M}", fixedDelayString = "${list-manager.expiry.interval:PT1M}")
+    public void scheduledExpire() {
+        if (enabled)
+            expire();
+    }
+
+    public int expire() {
+        if (!leaseRepository.tryAcquire(LEASE, owner, leaseDuration)) {
+            skipped.increment();
+            return 0;
+        }
+
+        try {
+            LocalDate today = LocalDate.now();
+            lag.set(taskExpiryRepository.findOldestExpiresAt(today)
+                    .map(expiresAt -> Duration.between(expiresAt.plusDays(1).atStartOfDay(), LocalDateTime.now()).toSeconds())
+                    .orElse(0L));
+
+            int total = 0;
+            ExpiredBatch batch;
+            do {
+                batch = batches.record(() -> transactionTemplate.execute(status -> expire(today)));
+                cacheService.evictTasks(batch.taskIds());
+                expiredTasks.increment(batch.taskIds().size());
+                cancelledItems.increment(batch.items());
+                total += batch.taskIds().size();
+            } while (batch.candidates() == batchSize && leaseRepository.tryAcquire(LEASE, owner, leaseDuration));
+
+            return total;
+        } finally {
+            leaseRepository.release(LEASE, owner);
+        }
+    }
+
+    private ExpiredBatch expire(LocalDate today) {
+        List<UUID> candidates = taskExpiryRepository.findExpiredIds(today, batchSize);
+        List<UUID> taskIds = candidates.isEmpty() ? List.of() : taskExpiryRepository.markExpired(candidates, today);
+
+        if (taskIds.isEmpty())
+            return new ExpiredBatch(candidates.size(), List.of(), 0);
+
+        List<ItemCountDTO> counts = taskExpiryRepository.countOpenItems(taskIds);
+        int items = taskExpiryRepository.cancelOpenItems(taskIds);
+
+        taskStatsService.itemsChanged(counts, ItemStateEnum.Cancelado);
+        taskIds.forEach(taskId -> eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskExpired, taskId)));
+
+        return new ExpiredBatch(candidates.size(), taskIds, items);
+    }
+
+    private record ExpiredBatch(int candidates, List<UUID> taskIds, int items) {
+    }
+}
@@ -0,0 +1,158 @@
+package org.hygorp.listmanager.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemDetailDTO;
+import org.hygorp.listmanager.records.TaskDetailDTO;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Service
+public class TaskExportService {
+    private static final String EXPORT_QUERY = "SELECT t.id, t.title, t.description, t.created_at, t.updated_at, t.expires_at, t.expired_at, " +
+            "i.id, i.title, i.description, i.priority, i.state " +
+            "FROM tb_task t " +
+            "LEFT JOIN tb_task_item ti ON ti.task_id = t.id " +
+            "LEFT JOIN tb_item i ON i.id = ti.item_id " +
+            "WHERE t.deleted_at IS NULL " +
+            "ORDER BY t.id";
+
+    private static final String CSV_HEADER = "task_id,task_title,task_description,task_created_at,task_updated_at,task_expires_at,task_expired_at," +
+            "item_id,item_title,item_description,item_priority,item_state";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter taskWriter;
+
+    public TaskExportService(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${list-manager.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.taskWriter = objectMapper.writerFor(TaskDetailDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void exportNdjson(OutputStream outputStream) {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream).setRootValueSeparator(null)) {
+            stream(new TaskConsumer() {
+                private TaskDetailDTO task;
+                private List<ItemDetailDTO> items;
+
+                @Override
+                public void accept(ResultSet row) throws SQLException, IOException {
+                    UUID taskId = row.getObject(1, UUID.class);
+
+                    if (task == null || !task.id().equals(taskId)) {
+                        finish();
+                        items = new ArrayList<>();
+                        task = new TaskDetailDTO(taskId, row.getString(2), row.getString(3), row.getObject(4, LocalDate.class),
+                                row.getObject(5, LocalDate.class), row.getObject(6, LocalDate.class), row.getObject(7, LocalDateTime.class), items);
+                    }
+
+                    UUID itemId = row.getObject(8, UUID.class);
+                    if (itemId != null)
+                        items.add(new ItemDetailDTO(taskId, itemId, row.getString(9), row.getString(10),
+                                ItemPriorityEnum.valueOf(row.getString(11)), ItemStateEnum.valueOf(row.getString(12))));
+                }
+
+                @Override
+                public void finish() throws IOException {
+                    if (task != null) {
+                        taskWriter.writeValue(generator, task);
+                        generator.writeRaw('\n');
+                    }
+                }
+            });
+
+            generator.flush();
+        } catch (IOException exception) {
+            throw new TaskServiceException("Error while exporting tasks");
+        }
+    }
+
+    public void exportCsv(OutputStream outputStream) {
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+
+            stream(new TaskConsumer() {
+                @Override
+                public void accept(ResultSet row) throws SQLException, IOException {
+                    for (int column = 1; column <= 12; column++) {
+                        if (column > 1)
+                            writer.write(',');
+
+                        Object value = row.getObject(column);
+                        writer.write(csv(value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value));
+                    }
+                    writer.write('\n');
+                }
+
+                @Override
+                public void finish() {
+                }
+            });
+
+            writer.flush();
+        } catch (IOException exception) {
+            throw new TaskServiceException("Error while exporting tasks");
+        }
+    }
+
+    private void stream(TaskConsumer consumer) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_QUERY, row -> {
+                try {
+                    consumer.accept(row);
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }));
+
+            consumer.finish();
+        } catch (UncheckedIOException exception) {
+            throw exception.getCause();
+        }
+    }
+
+    private String csv(Object value) {
+        String text = Objects.toString(value, "");
+
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0)
+            return text;
+
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private interface TaskConsumer {
+        void accept(ResultSet row) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+}
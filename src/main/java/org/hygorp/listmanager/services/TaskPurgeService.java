@@ -0,0 +1,109 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskPurgeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class TaskPurgeService {
+    public static final String LEASE = "task-purge";
+
+    private final TaskPurgeRepository taskPurgeRepository;
+    private final LeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration leaseDuration;
+    private final String owner;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Counter purgedTasks;
+    private final Counter purgedItems;
+    private final Counter skipped;
+    private final Timer purges;
+
+    public TaskPurgeService(TaskPurgeRepository taskPurgeRepository,
+                            LeaseRepository leaseRepository,
+                            TransactionTemplate transactionTemplate,
+                            MeterRegistry meterRegistry,
+                            @Value("${list-manager.soft-delete.batch-size:1000}") int batchSize,
+                            @Value("${list-manager.soft-delete.lease-duration:PT5M}") Duration leaseDuration) {
+        this.taskPurgeRepository = taskPurgeRepository;
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.leaseDuration = leaseDuration;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.purgedTasks = Counter.builder("tasks.purge.tasks")
+                .description("Deleted tasks removed by the purge job")
+                .register(meterRegistry);
+        this.purgedItems = Counter.builder("tasks.purge.items")
+                .description("Items of deleted tasks removed by the purge job")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("tasks.purge.skipped")
+                .description("Purge runs skipped because another node held the lease")
+                .register(meterRegistry);
+        this.purges = Timer.builder("tasks.purge")
+                .description("Time spent purging deleted tasks")
+                .register(meterRegistry);
+
+        Gauge.builder("tasks.purge.backlog", backlog, AtomicLong::get)
+                .description("Deleted tasks waiting to be purged, as of the last purge")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${list-manager.soft-delete.purge-interval:PT1M}", fixedDelayString = "${list-manager.soft-delete.purge-interval:PT1M}")
+    public void scheduledPurge() {
+        purge();
+    }
+
+    public int purge() {
+        if (!leaseRepository.tryAcquire(LEASE, owner, leaseDuration)) {
+            skipped.increment();
+            return 0;
+        }
+
+        try {
+            Integer purged = purges.record(() -> {
+                int items;
+                do {
+                    items = transactionTemplate.execute(status -> {
+                        List<UUID> itemIds = taskPurgeRepository.findDeletedItemIds(batchSize);
+                        return taskPurgeRepository.deleteItems(itemIds);
+                    });
+                    purgedItems.increment(items);
+                } while (items == batchSize && leaseRepository.tryAcquire(LEASE, owner, leaseDuration));
+
+                if (items == batchSize)
+                    return 0;
+
+                int total = 0;
+                int tasks;
+                do {
+                    tasks = transactionTemplate.execute(status -> taskPurgeRepository.deleteTasks(batchSize));
+                    purgedTasks.increment(tasks);
+                    total += tasks;
+                } while (tasks == batchSize && leaseRepository.tryAcquire(LEASE, owner, leaseDuration));
+
+                return total;
+            });
+
+            backlog.set(taskPurgeRepository.countDeletedTasks());
+
+            return purged == null ? 0 : purged;
+        } finally {
+            leaseRepository.release(LEASE, owner);
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.records.ItemDetailDTO;
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+@Component
+public class TaskSearchIndex {
+    public record IndexedItem(UUID id, String title, String description) {
+    }
+
+    public static final float TITLE_WEIGHT = 4f;
+    public static final float DESCRIPTION_WEIGHT = 1f;
+    public static final float ITEM_TITLE_WEIGHT = 2f;
+    public static final float ITEM_DESCRIPTION_WEIGHT = 0.5f;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+
+    private final NavigableMap<String, Map<UUID, Float>> postings = new TreeMap<>();
+    private final NavigableMap<String, Map<UUID, Float>> titlePostings = new TreeMap<>();
+    private final Map<UUID, Map<String, Float>> taskTerms = new HashMap<>();
+    private final Map<UUID, Map<String, Float>> itemTerms = new HashMap<>();
+    private final Map<UUID, Map<UUID, Map<String, Float>>> taskItemTerms = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void index(UUID taskId, String title, String description, Collection<IndexedItem> items) {
+        Map<String, Float> fields = new HashMap<>();
+        addTerms(fields, title, TITLE_WEIGHT);
+        addTerms(fields, description, DESCRIPTION_WEIGHT);
+
+        Map<UUID, Map<String, Float>> itemFields = null;
+        if (items != null) {
+            itemFields = new HashMap<>();
+            for (IndexedItem item : items)
+                itemFields.put(item.id(), itemTerms(item));
+        }
+
+        lock.writeLock().lock();
+        try {
+            unindex(taskId);
+
+            taskTerms.put(taskId, fields);
+            fields.forEach((term, weight) -> {
+                postings.computeIfAbsent(term, key -> new HashMap<>()).merge(taskId, weight, Float::sum);
+                if (weight >= TITLE_WEIGHT)
+                    titlePostings.computeIfAbsent(term, key -> new HashMap<>()).put(taskId, weight);
+            });
+
+            if (itemFields != null) {
+                taskItemTerms.put(taskId, itemFields);
+                reindexItems(taskId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void apply(TaskSearchEventDTO event) {
+        switch (event) {
+            case TaskSearchEventDTO.TaskIndexed task -> index(task.taskId(), task.title(), task.description(),
+                    task.items() == null ? null : task.items().stream().map(TaskSearchIndex::indexed).toList());
+            case TaskSearchEventDTO.TasksIndexed tasks -> tasks.tasks().forEach(this::apply);
+            case TaskSearchEventDTO.TaskRemoved task -> remove(task.taskId());
+            case TaskSearchEventDTO.ItemIndexed item -> indexItem(item.taskId(), indexed(item.item()));
+            case TaskSearchEventDTO.ItemRemoved item -> removeItem(item.taskId(), item.itemId());
+            case TaskSearchEventDTO.ItemsCleared items -> clearItems(items.taskId());
+        }
+    }
+
+    public void indexItem(UUID taskId, IndexedItem item) {
+        Map<String, Float> terms = itemTerms(item);
+
+        lock.writeLock().lock();
+        try {
+            taskItemTerms.computeIfAbsent(taskId, key -> new HashMap<>()).put(item.id(), terms);
+            reindexItems(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeItem(UUID taskId, UUID itemId) {
+        lock.writeLock().lock();
+        try {
+            Map<UUID, Map<String, Float>> items = taskItemTerms.get(taskId);
+
+            if (items != null && items.remove(itemId) != null)
+                reindexItems(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clearItems(UUID taskId) {
+        lock.writeLock().lock();
+        try {
+            taskItemTerms.remove(taskId);
+            reindexItems(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID taskId) {
+        lock.writeLock().lock();
+        try {
+            unindex(taskId);
+            taskItemTerms.remove(taskId);
+            reindexItems(taskId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            titlePostings.clear();
+            taskTerms.clear();
+            itemTerms.clear();
+            taskItemTerms.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return taskTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<UUID> search(String query, boolean titleOnly, int offset, int limit) {
+        Map<UUID, Float> scores = scores(query, titleOnly);
+
+        return scores.isEmpty() ? List.of() : top(scores, offset, limit);
+    }
+
+    public Set<UUID> matches(String query, boolean titleOnly) {
+        return Set.copyOf(scores(query, titleOnly).keySet());
+    }
+
+    private Map<UUID, Float> scores(String query, boolean titleOnly) {
+        List<String> tokens = tokenize(query);
+
+        if (tokens.isEmpty())
+            return Map.of();
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<String, Map<UUID, Float>> source = titleOnly ? titlePostings : postings;
+            Map<UUID, Float> scores = null;
+
+            for (String token : tokens) {
+                Map<UUID, Float> matches = match(source, token);
+
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    Map<UUID, Float> intersection = new HashMap<>();
+                    Map<UUID, Float> smaller = scores.size() <= matches.size() ? scores : matches;
+                    Map<UUID, Float> larger = smaller == scores ? matches : scores;
+
+                    smaller.forEach((taskId, score) -> {
+                        Float other = larger.get(taskId);
+                        if (other != null)
+                            intersection.put(taskId, score + other);
+                    });
+                    scores = intersection;
+                }
+
+                if (scores.isEmpty())
+                    return scores;
+            }
+
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<UUID, Float> match(NavigableMap<String, Map<UUID, Float>> source, String token) {
+        Map<UUID, Float> matches = new HashMap<>();
+        int expansions = 0;
+
+        for (Map.Entry<String, Map<UUID, Float>> entry : source.subMap(token, true, token + Character.MAX_VALUE, false).entrySet()) {
+            float factor = entry.getKey().equals(token) ? 1f : PREFIX_MATCH_FACTOR;
+            entry.getValue().forEach((taskId, weight) -> matches.merge(taskId, weight * factor, Math::max));
+
+            if (++expansions >= MAX_PREFIX_EXPANSIONS)
+                break;
+        }
+
+        return matches;
+    }
+
+    private List<UUID> top(Map<UUID, Float> scores, int offset, int limit) {
+        Comparator<Map.Entry<UUID, Float>> ranking = Map.Entry.<UUID, Float>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        int capacity = offset + limit;
+
+        PriorityQueue<Map.Entry<UUID, Float>> best = new PriorityQueue<>(ranking.reversed());
+        for (Map.Entry<UUID, Float> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > capacity)
+                best.poll();
+        }
+
+        List<Map.Entry<UUID, Float>> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+
+        return ranked.stream().skip(offset).map(Map.Entry::getKey).toList();
+    }
+
+    private void unindex(UUID taskId) {
+        Map<String, Float> fields = taskTerms.remove(taskId);
+        if (fields != null)
+            fields.forEach((term, weight) -> {
+                removePosting(postings, term, taskId, weight);
+                removePosting(titlePostings, term, taskId, null);
+            });
+    }
+
+    private void reindexItems(UUID taskId) {
+        Map<String, Float> previous = itemTerms.remove(taskId);
+        if (previous != null)
+            previous.forEach((term, weight) -> removePosting(postings, term, taskId, weight));
+
+        Map<UUID, Map<String, Float>> items = taskItemTerms.get(taskId);
+        if (items == null || items.isEmpty())
+            return;
+
+        Map<String, Float> aggregated = new HashMap<>();
+        items.values().forEach(terms -> terms.forEach((term, weight) -> aggregated.merge(term, weight, Math::max)));
+
+        itemTerms.put(taskId, aggregated);
+        aggregated.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new HashMap<>()).merge(taskId, weight, Float::sum));
+    }
+
+    private Map<String, Float> itemTerms(IndexedItem item) {
+        Map<String, Float> terms = new HashMap<>();
+        addTerms(terms, item.title(), ITEM_TITLE_WEIGHT);
+        addTerms(terms, item.description(), ITEM_DESCRIPTION_WEIGHT);
+
+        return terms;
+    }
+
+    private void removePosting(Map<String, Map<UUID, Float>> source, String term, UUID taskId, Float weight) {
+        Map<UUID, Float> tasks = source.get(term);
+
+        if (tasks == null)
+            return;
+
+        if (weight == null) {
+            tasks.remove(taskId);
+        } else {
+            tasks.computeIfPresent(taskId, (key, current) -> current - weight > 0.0001f ? current - weight : null);
+        }
+
+        if (tasks.isEmpty())
+            source.remove(term);
+    }
+
+    private void addTerms(Map<String, Float> terms, String text, float weight) {
+        for (String token : tokenize(text))
+            terms.merge(token, weight, Math::max);
+    }
+
+    private static IndexedItem indexed(ItemDetailDTO item) {
+        return new IndexedItem(item.id(), item.title(), item.description());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank())
+            return List.of();
+
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+}
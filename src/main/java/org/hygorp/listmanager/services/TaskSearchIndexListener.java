@@ -0,0 +1,27 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class TaskSearchIndexListener {
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskSearchIndexSync taskSearchIndexSync;
+
+    public TaskSearchIndexListener(TaskSearchIndex taskSearchIndex, TaskSearchIndexSync taskSearchIndexSync) {
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskSearchIndexSync = taskSearchIndexSync;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCommit(TaskSearchEventDTO event) {
+        taskSearchIndexSync.record(event.taskIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(TaskSearchEventDTO event) {
+        taskSearchIndex.apply(event);
+    }
+}
@@ -0,0 +1,116 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hygorp.listmanager.records.TaskSearchChangeDTO;
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskSearchChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskSearchIndexSync {
+    public static final String LEASE = "task-search-prune";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final TaskSearchChangeRepository taskSearchChangeRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final LeaseRepository leaseRepository;
+    private final Duration lookback;
+    private final Duration retention;
+    private final Duration leaseDuration;
+    private final String node;
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+    private final Counter synced;
+    private LocalDateTime since;
+
+    public TaskSearchIndexSync(TaskSearchChangeRepository taskSearchChangeRepository,
+                               TaskSearchIndex taskSearchIndex,
+                               LeaseRepository leaseRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${list-manager.search.sync-lookback:PT1M}") Duration lookback,
+                               @Value("${list-manager.search.change-retention:PT1H}") Duration retention,
+                               @Value("${list-manager.search.lease-duration:PT5M}") Duration leaseDuration) {
+        this.taskSearchChangeRepository = taskSearchChangeRepository;
+        this.taskSearchIndex = taskSearchIndex;
+        this.leaseRepository = leaseRepository;
+        this.lookback = lookback;
+        this.retention = retention;
+        this.leaseDuration = leaseDuration;
+        this.node = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+        this.synced = Counter.builder("tasks.search.sync")
+                .description("Tasks reindexed from changes committed by other nodes")
+                .register(meterRegistry);
+    }
+
+    public void record(Collection<UUID> taskIds) {
+        taskSearchChangeRepository.record(taskIds, node);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void start() {
+        since = taskSearchChangeRepository.now().minus(lookback);
+        applied.clear();
+    }
+
+    @Scheduled(initialDelayString = "${list-manager.search.sync-interval:PT5S}", fixedDelayString = "${list-manager.search.sync-interval:PT5S}")
+    public void scheduledSync() {
+        sync();
+    }
+
+    public synchronized int sync() {
+        LocalDateTime now = taskSearchChangeRepository.now();
+        List<UUID> taskIds = List.copyOf(taskSearchChangeRepository.findChanges(since == null ? now.minus(lookback) : since, node).stream()
+                .filter(change -> applied.putIfAbsent(change.id(), change.changedAt()) == null)
+                .map(TaskSearchChangeDTO::taskId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        for (int from = 0; from < taskIds.size(); from += BATCH_SIZE) {
+            List<UUID> batch = taskIds.subList(from, Math.min(from + BATCH_SIZE, taskIds.size()));
+            Set<UUID> removed = new HashSet<>(batch);
+
+            for (TaskSearchEventDTO.TaskIndexed task : taskSearchChangeRepository.findTasks(batch)) {
+                taskSearchIndex.apply(task);
+                removed.remove(task.taskId());
+            }
+
+            removed.forEach(taskSearchIndex::remove);
+        }
+
+        since = now.minus(lookback);
+        applied.values().removeIf(changedAt -> changedAt.isBefore(since));
+        synced.increment(taskIds.size());
+
+        return taskIds.size();
+    }
+
+    @Scheduled(initialDelayString = "${list-manager.search.prune-interval:PT10M}", fixedDelayString = "${list-manager.search.prune-interval:PT10M}")
+    public void scheduledPrune() {
+        prune();
+    }
+
+    public int prune() {
+        if (!leaseRepository.tryAcquire(LEASE, node, leaseDuration))
+            return 0;
+
+        try {
+            return taskSearchChangeRepository.deleteChanges(taskSearchChangeRepository.now().minus(retention));
+        } finally {
+            leaseRepository.release(LEASE, node);
+        }
+    }
+}
@@ -1,50 +1,105 @@
 package org.hygorp.listmanager.services;
 
+import org.hygorp.listmanager.configurations.CacheConfigurations;
 import org.hygorp.listmanager.entities.ItemEntity;
 import org.hygorp.listmanager.entities.TaskEntity;
 import org.hygorp.listmanager.enums.ItemPriorityEnum;
 import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.CursorPageDTO;
+import org.hygorp.listmanager.records.ItemDetailDTO;
+import org.hygorp.listmanager.records.QueryCursor;
+import org.hygorp.listmanager.records.SearchCursor;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.hygorp.listmanager.records.TaskCursor;
+import org.hygorp.listmanager.records.TaskDetailDTO;
+import org.hygorp.listmanager.records.TaskPageRequestDTO;
+import org.hygorp.listmanager.records.TaskQueryDTO;
+import org.hygorp.listmanager.records.TaskSearchEventDTO;
+import org.hygorp.listmanager.records.TaskSummaryDTO;
+import org.hygorp.listmanager.repositories.TaskQueryRepository;
 import org.hygorp.listmanager.repositories.TaskRepository;
 import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class TaskService {
-    private final TaskRepository taskRepository;
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int TITLE_MATCH_CHUNK_SIZE = 1000;
+
+    private static final int SEARCH_INDEX_BATCH_SIZE = 500;
 
-    public TaskService(TaskRepository taskRepository) {
+    private final TaskRepository taskRepository;
+    private final TaskQueryRepository taskQueryRepository;
+    private final TaskSearchIndex taskSearchIndex;
+    private final TaskStatsService taskStatsService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean softDelete;
+
+    public TaskService(TaskRepository taskRepository, TaskQueryRepository taskQueryRepository, TaskSearchIndex taskSearchIndex,
+                       TaskStatsService taskStatsService, ApplicationEventPublisher eventPublisher,
+                       @Value("${list-manager.soft-delete.enabled:true}") boolean softDelete) {
         this.taskRepository = taskRepository;
+        this.taskQueryRepository = taskQueryRepository;
+        this.taskSearchIndex = taskSearchIndex;
+        this.taskStatsService = taskStatsService;
+        this.eventPublisher = eventPublisher;
+        this.softDelete = softDelete;
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    @CacheEvict(cacheNames = CacheConfigurations.TASK_PAGES, allEntries = true)
+    @Transactional(rollbackFor = Exception.class)
     public TaskEntity save(TaskEntity taskEntity) {
         try {
             if(taskEntity.getExpiresAt().isBefore(LocalDate.now()))
                 throw new TaskServiceException("Task expired");
 
-            return taskRepository.save(taskEntity);
+            TaskEntity savedTask = taskRepository.save(taskEntity);
+            taskStatsService.itemsAdded(savedTask.getItems());
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskCreated, savedTask.getId()));
+
+            return reindexed(savedTask);
         } catch (Exception e) {
             throw new TaskServiceException("Error while saving task");
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
-    public TaskEntity update(UUID id, TaskEntity taskEntity) {
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
+    public TaskEntity update(UUID id, TaskEntity taskEntity, Long expectedVersion) {
         try {
             if (taskEntity.getExpiresAt().isBefore(LocalDate.now()))
                 throw new TaskServiceException("Invalid date");
 
             TaskEntity savedTask = taskRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Task not found"));
 
+            checkVersion(expectedVersion, savedTask.getVersion());
+
             if (!Objects.equals(savedTask.getTitle(), taskEntity.getTitle()) || taskEntity.getTitle() == null) {
                 savedTask.setTitle(taskEntity.getTitle());
             }
@@ -55,50 +110,162 @@ public class TaskService {
 
             if (!Objects.equals(savedTask.getExpiresAt(), taskEntity.getExpiresAt()) || taskEntity.getExpiresAt() == null) {
                 savedTask.setExpiresAt(taskEntity.getExpiresAt());
+                savedTask.setExpiredAt(null);
             }
 
-            return taskRepository.save(savedTask);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskUpdated, id));
+
+            return reindexed(taskRepository.save(savedTask));
         } catch (NoSuchElementException e) {
             throw new TaskServiceException("Task not found with provided id: " + id);
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
     public void delete(UUID id) {
         try {
-            taskRepository.deleteById(id);
+            taskStatsService.itemsRemoved(id);
+
+            if (!softDelete)
+                taskRepository.deleteById(id);
+
+            if (!softDelete || taskRepository.softDelete(id, LocalDateTime.now()) > 0)
+                eventPublisher.publishEvent(new TaskSearchEventDTO.TaskRemoved(id));
+
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskDeleted, id));
         } catch (Exception exception) {
             throw new TaskServiceException("Error while deleting task");
         }
 
     }
 
-    public List<TaskEntity> findAll() {
-        return taskRepository.findAll();
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> findAll(TaskPageRequestDTO pageRequest) {
+        TaskCursor position = decodeCursor(pageRequest.cursor());
+        int pageSize = pageSize(pageRequest.limit());
+
+        return toPage(taskRepository.findAllAfter(position.createdAt(), position.id(), Limit.of(pageSize + 1)), pageSize, pageRequest);
     }
 
-    public List<TaskEntity> findByTitle(String title) {
-        return taskRepository.findAllByTitleContainingIgnoreCase(title);
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #title, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> findByTitle(String title, TaskPageRequestDTO pageRequest) {
+        return searchIndex(title, true, pageRequest);
     }
 
-    public List<TaskEntity> findAllByItemsPriority(ItemPriorityEnum priority) {
-        return taskRepository.findTaskByItemsPriority(priority);
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #query, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> search(String query, TaskPageRequestDTO pageRequest) {
+        return searchIndex(query, false, pageRequest);
     }
 
-    public List<TaskEntity> findAllByItemsState(ItemStateEnum state) {
-        return taskRepository.findTaskByItemsState(state);
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #priority, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> findAllByItemsPriority(ItemPriorityEnum priority, TaskPageRequestDTO pageRequest) {
+        TaskCursor position = decodeCursor(pageRequest.cursor());
+        int pageSize = pageSize(pageRequest.limit());
+
+        return toPage(taskRepository.findTaskByItemsPriority(
+                priority, position.createdAt(), position.id(), Limit.of(pageSize + 1)
+        ), pageSize, pageRequest, pageRequest.matchingItemsOnly() ? priority : null, null);
     }
 
-    public List<TaskEntity> findAllByCreatedAtAfter(String dateString) {
-        return taskRepository.findAllByCreatedAtAfter(stringToLocalDateTime(dateString));
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #state, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> findAllByItemsState(ItemStateEnum state, TaskPageRequestDTO pageRequest) {
+        TaskCursor position = decodeCursor(pageRequest.cursor());
+        int pageSize = pageSize(pageRequest.limit());
+
+        return toPage(taskRepository.findTaskByItemsState(
+                state, position.createdAt(), position.id(), Limit.of(pageSize + 1)
+        ), pageSize, pageRequest, null, pageRequest.matchingItemsOnly() ? state : null);
     }
 
-    public List<TaskEntity> findAllByCreatedAtBetween(String startDate, String endDate) {
-        return taskRepository.findAllByCreatedAtBetween(
-                stringToLocalDateTime(startDate), stringToLocalDateTime(endDate)
-        );
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #query, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> query(TaskQueryDTO query, TaskPageRequestDTO pageRequest) {
+        if (isAfter(query.createdFrom(), query.createdTo()) || isAfter(query.expiresFrom(), query.expiresTo()))
+            throw new TaskServiceException("Invalid range");
+
+        QueryCursor position = pageRequest.cursor() == null || pageRequest.cursor().isBlank() ? null : decodeQueryCursor(pageRequest.cursor());
+        if (position != null && !position.matches(query))
+            throw new TaskServiceException("Invalid cursor");
+
+        int pageSize = pageSize(pageRequest.limit());
+
+        List<TaskSummaryDTO> tasks = query.title() == null
+                ? taskQueryRepository.findAll(query, null, position, pageSize + 1)
+                : findAllByTitle(query, position, pageSize + 1);
+        List<TaskSummaryDTO> content = tasks.size() > pageSize ? tasks.subList(0, pageSize) : tasks;
+
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            TaskSummaryDTO last = content.get(pageSize - 1);
+            nextCursor = new QueryCursor(query.sort(), query.direction(), query.sortValue(last), last.id()).encode();
+        }
+
+        if (!pageRequest.matchingItemsOnly() || !query.filtersItems() || !pageRequest.includeItems() || content.isEmpty())
+            return new CursorPageDTO<>(toDetails(content, pageRequest), nextCursor);
+
+        Map<UUID, List<ItemDetailDTO>> items = taskQueryRepository.findItems(
+                content.stream().map(TaskSummaryDTO::id).collect(Collectors.toSet()), query, pageRequest.includeItemDescriptions()
+        ).stream().collect(Collectors.groupingBy(ItemDetailDTO::taskId));
+
+        return new CursorPageDTO<>(content.stream()
+                .map(task -> TaskDetailDTO.of(task, items.getOrDefault(task.id(), List.of())))
+                .toList(), nextCursor);
     }
 
+    private List<TaskSummaryDTO> findAllByTitle(TaskQueryDTO query, QueryCursor position, int limit) {
+        List<UUID> matches = List.copyOf(taskSearchIndex.matches(query.title(), true));
+        List<TaskSummaryDTO> tasks = new ArrayList<>();
+
+        for (int from = 0; from < matches.size(); from += TITLE_MATCH_CHUNK_SIZE)
+            tasks.addAll(taskQueryRepository.findAll(query,
+                    matches.subList(from, Math.min(from + TITLE_MATCH_CHUNK_SIZE, matches.size())), position, limit));
+
+        Comparator<TaskSummaryDTO> order = Comparator.comparing(query::sortValue)
+                .thenComparing(TaskSummaryDTO::id, TaskService::compareIds);
+
+        return tasks.stream()
+                .sorted(query.direction() == Sort.Direction.ASC ? order : order.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private static int compareIds(UUID first, UUID second) {
+        int high = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+
+        return high != 0 ? high : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #dateString, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> findAllByCreatedAtAfter(String dateString, TaskPageRequestDTO pageRequest) {
+        TaskCursor position = decodeCursor(pageRequest.cursor());
+        int pageSize = pageSize(pageRequest.limit());
+
+        return toPage(taskRepository.findAllByCreatedAtAfter(
+                stringToLocalDateTime(dateString), position.createdAt(), position.id(), Limit.of(pageSize + 1)
+        ), pageSize, pageRequest);
+    }
+
+    @Cacheable(cacheNames = CacheConfigurations.TASK_PAGES, key = "{#root.methodName, #startDate, #endDate, #pageRequest}", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDetailDTO> findAllByCreatedAtBetween(String startDate, String endDate, TaskPageRequestDTO pageRequest) {
+        TaskCursor position = decodeCursor(pageRequest.cursor());
+        int pageSize = pageSize(pageRequest.limit());
+
+        return toPage(taskRepository.findAllByCreatedAtBetween(
+                stringToLocalDateTime(startDate), stringToLocalDateTime(endDate),
+                position.createdAt(), position.id(), Limit.of(pageSize + 1)
+        ), pageSize, pageRequest);
+    }
+
+    @Cacheable(cacheNames = CacheConfigurations.TASKS, key = "#id", condition = CacheConfigurations.UNLESS_PRIMARY_ONLY)
+    @Transactional(readOnly = true)
     public TaskEntity findById(UUID id) {
         try {
             return taskRepository.findById(id).orElseThrow(() -> new NoSuchElementException("Task not found"));
@@ -107,59 +274,208 @@ public class TaskService {
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
     public TaskEntity addItem(UUID taskId, ItemEntity itemEntity) {
         try {
             TaskEntity savedTask = taskRepository.findById(taskId).orElseThrow(() -> new NoSuchElementException("Task not found"));
 
             savedTask.addItem(itemEntity);
+            taskStatsService.itemAdded(itemEntity);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemCreated, taskId, itemEntity.getId()));
 
-            return taskRepository.save(savedTask);
+            return reindexed(taskRepository.save(savedTask));
         } catch (NoSuchElementException exception) {
             throw new TaskServiceException("Task not found with provided id: " + taskId);
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
-    public TaskEntity updateItem(UUID taskId, ItemEntity item) {
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
+    public TaskEntity updateItem(UUID taskId, ItemEntity item, Long expectedVersion) {
         try {
-            TaskEntity savedTask = taskRepository.findById(taskId).orElseThrow(() -> new NoSuchElementException("Task not found"));
+            TaskEntity savedTask = taskRepository.findForUpdateById(taskId).orElseThrow(() -> new NoSuchElementException("Task not found"));
+
+            checkVersion(expectedVersion, savedTask.getVersion());
+            ItemEntity savedItem = savedTask.findItem(item.getId()).orElse(null);
+            ItemStateEnum previousState = savedItem == null ? null : savedItem.getState();
+            ItemPriorityEnum previousPriority = savedItem == null ? null : savedItem.getPriority();
 
             savedTask.updateItem(item);
 
-            return taskRepository.save(savedTask);
+            if (savedItem != null)
+                taskStatsService.itemChanged(previousState, previousPriority, savedItem);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemUpdated, taskId, item.getId()));
+
+            return reindexed(taskRepository.save(savedTask));
         } catch (NoSuchElementException exception) {
             throw new TaskServiceException("Task not found with provided id: " + taskId);
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
     public TaskEntity removeItem(UUID taskId, ItemEntity itemEntity) {
         try {
             TaskEntity savedTask = taskRepository.findById(taskId).orElseThrow(() -> new NoSuchElementException("Task not found"));
 
+            savedTask.findItem(itemEntity.getId()).ifPresent(taskStatsService::itemRemoved);
             savedTask.removeItem(itemEntity);
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemDeleted, taskId, itemEntity.getId()));
 
-            return taskRepository.save(savedTask);
+            return reindexed(taskRepository.save(savedTask));
         } catch (NoSuchElementException exception) {
             throw new TaskServiceException("Task not found with provided id: " + taskId);
         }
     }
 
-    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = Exception.class)
+    @EvictTaskCaches
+    @Transactional(rollbackFor = Exception.class)
     public TaskEntity clearItems(UUID taskId) {
         try {
             TaskEntity savedTask = taskRepository.findById(taskId).orElseThrow(() -> new NoSuchElementException("Task not found"));
 
+            taskStatsService.itemsRemoved(savedTask.getItems());
             savedTask.clearItems();
+            eventPublisher.publishEvent(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemsCleared, taskId));
 
-            return taskRepository.save(savedTask);
+            return reindexed(taskRepository.save(savedTask));
         } catch (NoSuchElementException exception) {
             throw new TaskServiceException("Task not found with provided id: " + taskId);
         }
     }
 
-    private LocalDate stringToLocalDateTime(String dateString) {
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        taskSearchIndex.clear();
+
+        TaskCursor position = TaskCursor.START;
+        List<TaskSummaryDTO> tasks;
+
+        do {
+            tasks = taskRepository.findAllAfter(position.createdAt(), position.id(), Limit.of(SEARCH_INDEX_BATCH_SIZE));
+
+            if (tasks.isEmpty())
+                break;
+
+            Map<UUID, List<ItemDetailDTO>> items = findItems(tasks, true, null, null);
+
+            tasks.forEach(task -> taskSearchIndex.index(task.id(), task.title(), task.description(),
+                    items.getOrDefault(task.id(), List.of()).stream()
+                            .map(item -> new TaskSearchIndex.IndexedItem(item.id(), item.title(), item.description()))
+                            .toList()
+            ));
+
+            TaskSummaryDTO last = tasks.get(tasks.size() - 1);
+            position = new TaskCursor(last.createdAt(), last.id());
+        } while (tasks.size() == SEARCH_INDEX_BATCH_SIZE);
+    }
+
+    static void checkVersion(Long expectedVersion, Long version) {
+        if (expectedVersion != null && !expectedVersion.equals(version))
+            throw new TaskServiceException("Version conflict");
+    }
+
+    private TaskEntity reindexed(TaskEntity task) {
+        eventPublisher.publishEvent(TaskSearchEventDTO.of(task));
+        return task;
+    }
+
+    private CursorPageDTO<TaskDetailDTO> searchIndex(String query, boolean titleOnly, TaskPageRequestDTO pageRequest) {
+        int offset = decodeSearchCursor(pageRequest.cursor()).offset();
+        int pageSize = pageSize(pageRequest.limit());
+
+        List<UUID> ranked = taskSearchIndex.search(query, titleOnly, offset, pageSize + 1);
+        List<UUID> pageIds = ranked.size() > pageSize ? ranked.subList(0, pageSize) : ranked;
+
+        Map<UUID, TaskSummaryDTO> summaries = pageIds.isEmpty() ? Map.of() : taskRepository.findSummariesByIdIn(pageIds).stream()
+                .collect(Collectors.toMap(TaskSummaryDTO::id, Function.identity()));
+        List<TaskSummaryDTO> content = pageIds.stream().map(summaries::get).filter(Objects::nonNull).toList();
+
+        String nextCursor = ranked.size() > pageSize ? new SearchCursor(offset + pageSize).encode() : null;
+
+        return new CursorPageDTO<>(toDetails(content, pageRequest), nextCursor);
+    }
+
+    private SearchCursor decodeSearchCursor(String cursor) {
+        try {
+            return SearchCursor.decode(cursor);
+        } catch (IllegalArgumentException exception) {
+            throw new TaskServiceException("Invalid cursor");
+        }
+    }
+
+    private QueryCursor decodeQueryCursor(String cursor) {
+        try {
+            return QueryCursor.decode(cursor);
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new TaskServiceException("Invalid cursor");
+        }
+    }
+
+    private TaskCursor decodeCursor(String cursor) {
+        try {
+            return TaskCursor.decode(cursor);
+        } catch (IllegalArgumentException | DateTimeParseException exception) {
+            throw new TaskServiceException("Invalid cursor");
+        }
+    }
+
+    private int pageSize(Integer limit) {
+        if (limit == null)
+            return DEFAULT_PAGE_SIZE;
+
+        if (limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new TaskServiceException("Invalid limit");
+
+        return limit;
+    }
+
+    private CursorPageDTO<TaskDetailDTO> toPage(List<TaskSummaryDTO> tasks, int pageSize, TaskPageRequestDTO pageRequest) {
+        return toPage(tasks, pageSize, pageRequest, null, null);
+    }
+
+    private CursorPageDTO<TaskDetailDTO> toPage(List<TaskSummaryDTO> tasks, int pageSize, TaskPageRequestDTO pageRequest,
+                                                ItemPriorityEnum priority, ItemStateEnum state) {
+        List<TaskSummaryDTO> content = tasks.size() > pageSize ? tasks.subList(0, pageSize) : tasks;
+
+        if (tasks.size() <= pageSize)
+            return new CursorPageDTO<>(toDetails(content, pageRequest, priority, state), null);
+
+        TaskSummaryDTO last = content.get(pageSize - 1);
+
+        return new CursorPageDTO<>(toDetails(content, pageRequest, priority, state), new TaskCursor(last.createdAt(), last.id()).encode());
+    }
+
+    private List<TaskDetailDTO> toDetails(List<TaskSummaryDTO> tasks, TaskPageRequestDTO pageRequest) {
+        return toDetails(tasks, pageRequest, null, null);
+    }
+
+    private List<TaskDetailDTO> toDetails(List<TaskSummaryDTO> tasks, TaskPageRequestDTO pageRequest, ItemPriorityEnum priority, ItemStateEnum state) {
+        if (!pageRequest.includeItems() || tasks.isEmpty())
+            return tasks.stream().map(task -> TaskDetailDTO.of(task, null)).toList();
+
+        Map<UUID, List<ItemDetailDTO>> items = findItems(tasks, pageRequest.includeItemDescriptions(), priority, state);
+
+        return tasks.stream().map(task -> TaskDetailDTO.of(task, items.getOrDefault(task.id(), List.of()))).toList();
+    }
+
+    private Map<UUID, List<ItemDetailDTO>> findItems(List<TaskSummaryDTO> tasks, boolean includeDescriptions, ItemPriorityEnum priority, ItemStateEnum state) {
+        Set<UUID> taskIds = tasks.stream().map(TaskSummaryDTO::id).collect(Collectors.toSet());
+
+        List<ItemDetailDTO> items = includeDescriptions
+                ? taskRepository.findItemsByTaskIdIn(taskIds, priority, state)
+                : taskRepository.findItemsWithoutDescriptionByTaskIdIn(taskIds, priority, state);
+
+        return items.stream().collect(Collectors.groupingBy(ItemDetailDTO::taskId));
+    }
+
+    private static boolean isAfter(LocalDate from, LocalDate to) {
+        return from != null && to != null && from.isAfter(to);
+    }
+
+    static LocalDate stringToLocalDateTime(String dateString) {
         DateTimeFormatter inputFormatter = DateTimeFormatter.ofPattern("dd-MM-yyyy");
         return LocalDate.parse(dateString, inputFormatter);
     }
@@ -0,0 +1,51 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.annotation.AfterThrowing;
+import org.aspectj.lang.annotation.Aspect;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.regex.Pattern;
+
+@Aspect
+@Component
+public class TaskServiceExceptionMetrics {
+    public static final String METRIC_NAME = "tasks.service.exceptions";
+
+    private static final Pattern VARIABLE_SUFFIX = Pattern.compile("(?s)(:.*| at index \\d+)$");
+
+    private final MeterRegistry meterRegistry;
+    private final Set<TaskServiceException> counted = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    public TaskServiceExceptionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @AfterThrowing(pointcut = "within(org.hygorp.listmanager.services.*Service)", throwing = "exception")
+    public void count(JoinPoint joinPoint, TaskServiceException exception) {
+        if (!counted.add(exception))
+            return;
+
+        Counter.builder(METRIC_NAME)
+                .description("TaskServiceException thrown by the services, by cause")
+                .tag("cause", cause(exception))
+                .tag("method", joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private String cause(TaskServiceException exception) {
+        String message = exception.getMessage();
+
+        if (message == null)
+            return "unknown";
+
+        return VARIABLE_SUFFIX.matcher(message).replaceFirst("");
+    }
+}
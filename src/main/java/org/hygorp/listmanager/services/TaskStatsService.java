@@ -0,0 +1,177 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.entities.ItemCounterEntity;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemCountDTO;
+import org.hygorp.listmanager.records.StatsDTO;
+import org.hygorp.listmanager.records.TaskStatsDTO;
+import org.hygorp.listmanager.records.TaskSummaryDTO;
+import org.hygorp.listmanager.repositories.ItemCounterRepository;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class TaskStatsService {
+    public static final String LEASE = "item-counters";
+
+    private final TaskRepository taskRepository;
+    private final ItemRepository itemRepository;
+    private final ItemCounterRepository itemCounterRepository;
+    private final LeaseRepository leaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean summaryTable;
+    private final Duration leaseDuration;
+    private final String owner;
+
+    public TaskStatsService(TaskRepository taskRepository,
+                            ItemRepository itemRepository,
+                            ItemCounterRepository itemCounterRepository,
+                            LeaseRepository leaseRepository,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${list-manager.stats.summary-table:true}") boolean summaryTable,
+                            @Value("${list-manager.stats.lease-duration:PT5M}") Duration leaseDuration) {
+        this.taskRepository = taskRepository;
+        this.itemRepository = itemRepository;
+        this.itemCounterRepository = itemCounterRepository;
+        this.leaseRepository = leaseRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.summaryTable = summaryTable;
+        this.leaseDuration = leaseDuration;
+        this.owner = ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID();
+    }
+
+    @Transactional(readOnly = true)
+    public StatsDTO stats() {
+        List<ItemCountDTO> counts = summaryTable
+                ? itemCounterRepository.findCounts()
+                : itemRepository.countGroupByStateAndPriority();
+
+        return StatsDTO.of(taskRepository.count(), taskRepository.countByExpiresAtBefore(LocalDate.now()), counts);
+    }
+
+    @Transactional(readOnly = true)
+    public TaskStatsDTO stats(UUID taskId) {
+        TaskSummaryDTO task = taskRepository.findSummariesByIdIn(List.of(taskId)).stream().findFirst()
+                .orElseThrow(() -> new TaskServiceException("Task not found with provided id: " + taskId));
+
+        return TaskStatsDTO.of(task, itemRepository.countByTaskIdGroupByStateAndPriority(taskId));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemsAdded(Collection<ItemEntity> items) {
+        if (summaryTable)
+            increment(items, 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemsRemoved(Collection<ItemEntity> items) {
+        if (summaryTable)
+            increment(items, -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemsRemoved(UUID taskId) {
+        if (!summaryTable)
+            return;
+
+        itemRepository.countByTaskIdGroupByStateAndPriority(taskId)
+                .forEach(count -> increment(count.state(), count.priority(), -count.count()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemAdded(ItemEntity item) {
+        if (summaryTable)
+            increment(item.getState(), item.getPriority(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemRemoved(ItemEntity item) {
+        if (summaryTable)
+            increment(item.getState(), item.getPriority(), -1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemChanged(ItemStateEnum previousState, ItemPriorityEnum previousPriority, ItemEntity item) {
+        if (!summaryTable || (previousState == item.getState() && previousPriority == item.getPriority()))
+            return;
+
+        increment(previousState, previousPriority, -1);
+        increment(item.getState(), item.getPriority(), 1);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void itemsChanged(Collection<ItemCountDTO> previousCounts, ItemStateEnum state) {
+        if (!summaryTable)
+            return;
+
+        previousCounts.forEach(count -> {
+            increment(count.state(), count.priority(), -count.count());
+            increment(state, count.priority(), count.count());
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildCounters() {
+        if (!summaryTable || !leaseRepository.tryAcquire(LEASE, owner, leaseDuration))
+            return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> rebuild());
+        } finally {
+            leaseRepository.release(LEASE, owner);
+        }
+    }
+
+    private void rebuild() {
+        Map<ItemCounterEntity.Key, ItemCounterEntity> counters = itemCounterRepository.findAllForUpdate().stream()
+                .collect(Collectors.toMap(counter -> new ItemCounterEntity.Key(counter.getState(), counter.getPriority()), Function.identity()));
+
+        Map<ItemCounterEntity.Key, Long> counts = new HashMap<>();
+        itemRepository.countGroupByStateAndPriority()
+                .forEach(count -> counts.put(new ItemCounterEntity.Key(count.state(), count.priority()), count.count()));
+
+        for (ItemStateEnum state : ItemStateEnum.values())
+            for (ItemPriorityEnum priority : ItemPriorityEnum.values()) {
+                ItemCounterEntity.Key key = new ItemCounterEntity.Key(state, priority);
+                long items = counts.getOrDefault(key, 0L);
+                ItemCounterEntity counter = counters.get(key);
+
+                if (counter == null)
+                    itemCounterRepository.save(new ItemCounterEntity(state, priority, items));
+                else if (counter.getItems() != items)
+                    itemCounterRepository.set(state, priority, items);
+            }
+    }
+
+    private void increment(Collection<ItemEntity> items, long sign) {
+        Map<ItemCounterEntity.Key, ItemCountDTO> counts = new HashMap<>();
+        items.forEach(item -> counts.merge(new ItemCounterEntity.Key(item.getState(), item.getPriority()),
+                new ItemCountDTO(item.getState(), item.getPriority(), 1),
+                (left, right) -> new ItemCountDTO(left.state(), left.priority(), left.count() + right.count())));
+
+        counts.values().forEach(count -> increment(count.state(), count.priority(), sign * count.count()));
+    }
+
+    private void increment(ItemStateEnum state, ItemPriorityEnum priority, long delta) {
+        if (delta != 0)
+            itemCounterRepository.increment(state, priority, delta);
+    }
+}
@@ -0,0 +1,36 @@
+CREATE TABLE tb_task (
+    id UUID NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    description TEXT NOT NULL,
+    created_at DATE NOT NULL,
+    updated_at DATE,
+    expires_at DATE NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_task PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_item (
+    id UUID NOT NULL,
+    title VARCHAR(100) NOT NULL,
+    description TEXT NOT NULL,
+    priority VARCHAR(255) NOT NULL CHECK (priority IN ('Baixa', 'Media', 'Alta')),
+    state VARCHAR(255) NOT NULL CHECK (state IN ('Pendente', 'Fazendo', 'Completo', 'Cancelado')),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_item PRIMARY KEY (id)
+);
+
+CREATE TABLE tb_task_item (
+    task_id UUID NOT NULL,
+    item_id UUID NOT NULL,
+    CONSTRAINT pk_task_item PRIMARY KEY (item_id, task_id),
+    CONSTRAINT uk_task_item_item UNIQUE (item_id),
+    CONSTRAINT fk_task_item_task FOREIGN KEY (task_id) REFERENCES tb_task (id),
+    CONSTRAINT fk_task_item_item FOREIGN KEY (item_id) REFERENCES tb_item (id)
+);
+
+CREATE TABLE tb_item_counter (
+    state VARCHAR(255) NOT NULL CHECK (state IN ('Pendente', 'Fazendo', 'Completo', 'Cancelado')),
+    priority VARCHAR(255) NOT NULL CHECK (priority IN ('Baixa', 'Media', 'Alta')),
+    items BIGINT NOT NULL,
+    CONSTRAINT pk_item_counter PRIMARY KEY (priority, state)
+);
@@ -0,0 +1,9 @@
+CREATE INDEX idx_task_created_at_id ON tb_task (created_at, id);
+
+CREATE INDEX idx_task_expires_at ON tb_task (expires_at);
+
+CREATE INDEX idx_task_item_task_id ON tb_task_item (task_id);
+
+CREATE INDEX idx_item_state ON tb_item (state);
+
+CREATE INDEX idx_item_priority ON tb_item (priority);
@@ -0,0 +1,3 @@
+ALTER TABLE tb_task ADD COLUMN deleted_at TIMESTAMP(6);
+
+CREATE INDEX idx_task_deleted_at ON tb_task (deleted_at);
@@ -0,0 +1,10 @@
+ALTER TABLE tb_task ADD COLUMN expired_at TIMESTAMP(6);
+
+CREATE INDEX idx_task_expired_at_expires_at ON tb_task (expired_at, expires_at);
+
+CREATE TABLE tb_lease (
+    name VARCHAR(100) NOT NULL,
+    owner VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_lease PRIMARY KEY (name)
+);
@@ -0,0 +1,9 @@
+CREATE TABLE tb_task_search_change (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    task_id UUID NOT NULL,
+    node VARCHAR(255) NOT NULL,
+    changed_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_task_search_change PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_task_search_change_changed_at ON tb_task_search_change (changed_at);
@@ -1,4 +1,4 @@
-import React, {useEffect} from "react";
+import React, {useCallback, useEffect} from "react";
 import {AppContext} from "@/context/app-context";
 
 export function AppContextProvider({ children } : { children : React.ReactNode }) {
@@ -6,24 +6,73 @@ export function AppContextProvider({ children } : { children : React.ReactNode }
 
     const [tasks, setTasks] = React.useState<Set<Task>>(new Set());
 
-    useEffect(() => {
-        const loadResources = async () => {
-            await fetch(API_URL.concat("/tasks/find-all"), {
+    const loadTasks = useCallback(async () => {
+        const loadedTasks: Task[] = [];
+        let cursor: string | null = null;
+
+        do {
+            const query: string = cursor ? `?cursor=${encodeURIComponent(cursor)}` : "";
+
+            const response: Response = await fetch(API_URL.concat("/tasks/find-all", query), {
                 method: "GET",
                 headers: {
                     "Content-Type": "application/json",
                 }
-            }).then(async (response: Response) => {
-                if (response.ok) {
-                    const data = await response.json();
+            });
+
+            if (!response.ok) return;
+
+            const data: TaskPage = await response.json();
+
+            loadedTasks.push(...data.content);
+            cursor = data.nextCursor;
+        } while (cursor);
+
+        setTasks(new Set(loadedTasks));
+    }, [API_URL]);
+
+    useEffect(() => {
+        loadTasks().then();
+    }, [loadTasks]);
 
-                    setTasks(data);
+    useEffect(() => {
+        const source = new EventSource(API_URL.concat("/tasks/changes"));
+
+        const reloadTask = async (event: MessageEvent) => {
+            const change: TaskChange = JSON.parse(event.data);
+
+            const response: Response = await fetch(API_URL.concat(`/tasks/find-by-id/${change.taskId}`), {
+                method: "GET",
+                headers: {
+                    "Content-Type": "application/json",
                 }
-            })
+            });
+
+            if (response.ok) {
+                const data = await response.json();
+
+                updateState(data);
+            }
         }
 
-        loadResources().then();
-    }, [API_URL]);
+        const removeTask = (event: MessageEvent) => {
+            const change: TaskChange = JSON.parse(event.data);
+
+            if (change.taskId) removeState(change.taskId);
+        }
+
+        const reloadTasks = () => {
+            loadTasks().then();
+        }
+
+        ["TaskCreated", "TaskUpdated", "TaskExpired", "ItemCreated", "ItemUpdated", "ItemDeleted", "ItemsCleared"]
+            .forEach((type) => source.addEventListener(type, reloadTask));
+        source.addEventListener("TaskDeleted", removeTask);
+        source.addEventListener("TasksImported", reloadTasks);
+        source.addEventListener("Resync", reloadTasks);
+
+        return () => source.close();
+    }, [API_URL, loadTasks]);
 
     const saveTask = async (task: Task): Promise<number> => {
         const response = await fetch(API_URL.concat("/tasks/save"), {
@@ -79,17 +128,7 @@ export function AppContextProvider({ children } : { children : React.ReactNode }
         });
 
         if (response.status === 204) {
-            setTasks((prevTasks) => {
-                const updatedTasks = new Set(prevTasks);
-
-                updatedTasks.forEach((task) => {
-                    if (task.id === taskId) {
-                        updatedTasks.delete(task);
-                    }
-                });
-
-                return updatedTasks;
-            });
+            removeState(taskId);
         }
 
         return response.status;
@@ -193,6 +232,20 @@ export function AppContextProvider({ children } : { children : React.ReactNode }
         });
     }
 
+    function removeState(taskId: string) {
+        setTasks((prevTasks) => {
+            const updatedTasks = new Set(prevTasks);
+
+            updatedTasks.forEach((task) => {
+                if (task.id === taskId) {
+                    updatedTasks.delete(task);
+                }
+            });
+
+            return updatedTasks;
+        });
+    }
+
     return (
         <AppContext.Provider value={{tasks, saveTask, updateTask, deleteTask, addItem, updateItem, deleteItem, clearItems}}>
             {children}
@@ -0,0 +1,5 @@
+type TaskChange = {
+    type: string;
+    taskId: string | null;
+    itemId: string | null;
+}
\ No newline at end of file
@@ -0,0 +1,4 @@
+type TaskPage = {
+    content: Task[];
+    nextCursor: string | null;
+}
\ No newline at end of file
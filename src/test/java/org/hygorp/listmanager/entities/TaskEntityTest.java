@@ -0,0 +1,84 @@
+package org.hygorp.listmanager.entities;
+
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Task Entity Test")
+public class TaskEntityTest {
+    private static final int ITEM_COUNT = 50_000;
+
+    private TaskEntity task;
+    private List<ItemEntity> items;
+
+    @BeforeEach
+    void beforeEach() {
+        task = new TaskEntity("Inventory", "count every item in the warehouse", LocalDate.now().plusDays(30));
+        items = new ArrayList<>(ITEM_COUNT);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            ItemEntity item = new ItemEntity("Shelf " + i, "count shelf " + i, ItemPriorityEnum.Baixa, ItemStateEnum.Pendente);
+            task.addItem(item);
+            items.add(item);
+        }
+    }
+
+    @Test
+    @DisplayName("should assign ids and keep insertion order")
+    void shouldAssignIdsAndKeepInsertionOrder() {
+        Assertions.assertEquals(ITEM_COUNT, task.getItems().size());
+        Assertions.assertTrue(items.stream().allMatch(item -> item.getId() != null));
+        Assertions.assertEquals(items, new ArrayList<>(task.getItems()));
+    }
+
+    @Test
+    @DisplayName("should update every item by id in linear time")
+    void shouldUpdateEveryItemByIdInLinearTime() {
+        Assertions.assertTimeout(Duration.ofSeconds(2), () -> {
+            for (ItemEntity item : items)
+                task.updateItem(new ItemEntity(item.getId(), item.getTitle(), "counted", ItemPriorityEnum.Alta, ItemStateEnum.Completo));
+        });
+
+        Assertions.assertTrue(task.getItems().stream().allMatch(item -> item.getState() == ItemStateEnum.Completo));
+    }
+
+    @Test
+    @DisplayName("should remove a mutated item by id")
+    void shouldRemoveAMutatedItemById() {
+        ItemEntity item = items.get(ITEM_COUNT / 2);
+        ItemEntity staleCopy = new ItemEntity(item.getId(), item.getTitle(), item.getDescription(), item.getPriority(), item.getState());
+
+        task.updateItem(new ItemEntity(item.getId(), "Shelf moved", "moved to the back", ItemPriorityEnum.Media, ItemStateEnum.Fazendo));
+        task.removeItem(staleCopy);
+
+        Assertions.assertEquals(ITEM_COUNT - 1, task.getItems().size());
+        Assertions.assertTrue(task.findItem(item.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should remove every item by id in linear time")
+    void shouldRemoveEveryItemByIdInLinearTime() {
+        Assertions.assertTimeout(Duration.ofSeconds(2), () -> {
+            for (ItemEntity item : items)
+                task.removeItem(new ItemEntity(item.getId(), null, null, null, null));
+        });
+
+        Assertions.assertTrue(task.getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should ignore unknown item ids")
+    void shouldIgnoreUnknownItemIds() {
+        task.updateItem(new ItemEntity(UUID.randomUUID(), "Ghost", "not in this task", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        task.removeItem(new ItemEntity(UUID.randomUUID(), null, null, null, null));
+
+        Assertions.assertEquals(ITEM_COUNT, task.getItems().size());
+        Assertions.assertTrue(task.getItems().stream().noneMatch(item -> item.getTitle().equals("Ghost")));
+    }
+}
@@ -0,0 +1,45 @@
+package org.hygorp.listmanager.entities;
+
+import org.junit.jupiter.api.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+@DisplayName("Time Ordered Id Generator Test")
+public class TimeOrderedIdGeneratorTest {
+    @Test
+    @DisplayName("should generate version 7 ids with the IETF variant")
+    void shouldGenerateVersion7IdsWithTheIetfVariant() {
+        UUID id = TimeOrderedIdGenerator.nextId();
+
+        Assertions.assertEquals(7, id.version());
+        Assertions.assertEquals(2, id.variant());
+    }
+
+    @Test
+    @DisplayName("should generate unique ids in increasing order")
+    void shouldGenerateUniqueIdsInIncreasingOrder() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++)
+            ids.add(TimeOrderedIdGenerator.nextId());
+
+        for (int i = 1; i < ids.size(); i++)
+            Assertions.assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+
+        Assertions.assertEquals(ids.size(), new HashSet<>(ids).size());
+    }
+
+    @Test
+    @DisplayName("should expose the creation time of time ordered ids only")
+    void shouldExposeTheCreationTimeOfTimeOrderedIdsOnly() {
+        Instant before = Instant.now().minusMillis(1);
+        Instant timestamp = TimeOrderedIdGenerator.timestamp(TimeOrderedIdGenerator.nextId()).orElseThrow();
+
+        Assertions.assertFalse(timestamp.isBefore(before.minusSeconds(1)));
+        Assertions.assertFalse(timestamp.isAfter(Instant.now().plusSeconds(1)));
+        Assertions.assertTrue(TimeOrderedIdGenerator.timestamp(UUID.randomUUID()).isEmpty());
+    }
+}
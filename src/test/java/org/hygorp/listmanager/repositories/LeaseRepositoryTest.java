@@ -0,0 +1,66 @@
+package org.hygorp.listmanager.repositories;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Lease Repository Test")
+public class LeaseRepositoryTest {
+    private static final String LEASE = "lease-test";
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void beforeEach() {
+        jdbcTemplate.update("DELETE FROM tb_lease WHERE name = ?", LEASE);
+    }
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("DELETE FROM tb_lease WHERE name = ?", LEASE);
+    }
+
+    @Test
+    @DisplayName("should set the lease expiry from the database clock")
+    @Order(1)
+    void shouldSetTheLeaseExpiryFromTheDatabaseClock() {
+        Assertions.assertTrue(leaseRepository.tryAcquire(LEASE, "first-node", Duration.ofMinutes(5)));
+
+        LocalDateTime now = jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+        LocalDateTime expiresAt = jdbcTemplate.queryForObject("SELECT expires_at FROM tb_lease WHERE name = ?", LocalDateTime.class, LEASE);
+        Duration remaining = Duration.between(now, expiresAt);
+
+        Assertions.assertTrue(remaining.compareTo(Duration.ofMinutes(4)) > 0, remaining::toString);
+        Assertions.assertTrue(remaining.compareTo(Duration.ofMinutes(5)) <= 0, remaining::toString);
+    }
+
+    @Test
+    @DisplayName("should hand the lease over only once it is released or expired")
+    @Order(2)
+    void shouldHandTheLeaseOverOnlyOnceItIsReleasedOrExpired() {
+        Assertions.assertTrue(leaseRepository.tryAcquire(LEASE, "first-node", Duration.ofMinutes(5)));
+        Assertions.assertTrue(leaseRepository.tryAcquire(LEASE, "first-node", Duration.ofMinutes(5)));
+        Assertions.assertFalse(leaseRepository.tryAcquire(LEASE, "second-node", Duration.ofMinutes(5)));
+
+        leaseRepository.release(LEASE, "second-node");
+        Assertions.assertFalse(leaseRepository.tryAcquire(LEASE, "second-node", Duration.ofMinutes(5)));
+
+        leaseRepository.release(LEASE, "first-node");
+        Assertions.assertTrue(leaseRepository.tryAcquire(LEASE, "second-node", Duration.ofMillis(1)));
+
+        jdbcTemplate.update("UPDATE tb_lease SET expires_at = LOCALTIMESTAMP - INTERVAL '1' SECOND WHERE name = ?", LEASE);
+        Assertions.assertTrue(leaseRepository.tryAcquire(LEASE, "first-node", Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,144 @@
+package org.hygorp.listmanager.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Schema Migration Test")
+public class SchemaMigrationTest {
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+
+        List<TaskEntity> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            TaskEntity task = new TaskEntity(UUID.randomUUID(), "Task " + i, "task number " + i, LocalDate.now().plusDays(i));
+            task.setCreatedAt(LocalDate.now().minusDays(i));
+            task.addItem(new ItemEntity("Item " + i, "item number " + i,
+                    ItemPriorityEnum.values()[i % 3], ItemStateEnum.values()[i % 4]));
+            tasks.add(task);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> taskBatchRepository.insertAll(tasks));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+    }
+
+    @Test
+    @DisplayName("should apply every versioned migration")
+    @Order(1)
+    void shouldApplyEveryVersionedMigration() {
+        Assertions.assertEquals(0, flyway.info().pending().length);
+        Assertions.assertEquals("7", flyway.info().current().getVersion().getVersion());
+    }
+
+    @Test
+    @DisplayName("should use the created at index for created at range scans")
+    @Order(2)
+    void shouldUseTheCreatedAtIndexForCreatedAtRangeScans() {
+        LocalDate date = LocalDate.now().minusDays(10);
+
+        assertUsesIndex("idx_task_created_at_id", "SELECT t.id FROM tb_task t WHERE t.created_at > ? " +
+                "AND (t.created_at, t.id) > (?, ?) ORDER BY t.created_at, t.id FETCH FIRST 51 ROWS ONLY",
+                date, LocalDate.of(1, 1, 1), new UUID(0, 0));
+        assertUsesIndex("idx_task_created_at_id", "SELECT t.id FROM tb_task t WHERE t.created_at BETWEEN ? AND ? " +
+                "AND (t.created_at, t.id) > (?, ?) ORDER BY t.created_at, t.id FETCH FIRST 51 ROWS ONLY",
+                date, LocalDate.now(), LocalDate.of(1, 1, 1), new UUID(0, 0));
+    }
+
+    @Test
+    @DisplayName("should use the expires at index to count overdue tasks")
+    @Order(3)
+    void shouldUseTheExpiresAtIndexToCountOverdueTasks() {
+        assertUsesIndex("idx_task_expires_at", "SELECT COUNT(t.id) FROM tb_task t WHERE t.expires_at < ?", LocalDate.now().plusDays(3));
+    }
+
+    @Test
+    @DisplayName("should use the task id index of the join table to load items")
+    @Order(4)
+    void shouldUseTheTaskIdIndexOfTheJoinTableToLoadItems() {
+        UUID taskId = jdbcTemplate.queryForObject("SELECT id FROM tb_task FETCH FIRST 1 ROWS ONLY", UUID.class);
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.indexes " +
+                "WHERE index_name = 'idx_task_item_task_id'", Long.class));
+        assertSeeksJoinTableByTaskId("SELECT i.id, i.title FROM tb_task t " +
+                "JOIN tb_task_item ti ON ti.task_id = t.id JOIN tb_item i ON i.id = ti.item_id WHERE t.id IN (?)", taskId);
+        assertSeeksJoinTableByTaskId("SELECT t.id FROM tb_task t WHERE EXISTS (SELECT 1 FROM tb_task_item ti " +
+                "JOIN tb_item i ON i.id = ti.item_id WHERE ti.task_id = t.id AND i.priority = ?)", "Alta");
+    }
+
+    @Test
+    @DisplayName("should use the item state and priority indexes")
+    @Order(5)
+    void shouldUseTheItemStateAndPriorityIndexes() {
+        assertUsesIndex("idx_item_state", "SELECT COUNT(i.id) FROM tb_item i WHERE i.state = ?", "Cancelado");
+        assertUsesIndex("idx_item_priority", "SELECT COUNT(i.id) FROM tb_item i WHERE i.priority = ?", "Alta");
+    }
+
+    @Test
+    @DisplayName("should key the join table by item id alone")
+    @Order(6)
+    void shouldKeyTheJoinTableByItemIdAlone() {
+        Assertions.assertEquals(List.of("ITEM_ID"), jdbcTemplate.queryForList("SELECT UPPER(k.column_name) " +
+                "FROM information_schema.table_constraints c JOIN information_schema.key_column_usage k " +
+                "ON k.constraint_name = c.constraint_name AND k.table_name = c.table_name " +
+                "WHERE UPPER(c.table_name) = 'TB_TASK_ITEM' AND c.constraint_type = 'PRIMARY KEY'", String.class));
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints " +
+                "WHERE UPPER(table_name) = 'TB_TASK_ITEM' AND constraint_type = 'UNIQUE'", Long.class));
+    }
+
+    private void assertUsesIndex(String index, String sql, Object... args) {
+        String plan = explain(sql, args);
+
+        Assertions.assertTrue(plan.contains(index), plan);
+    }
+
+    private void assertSeeksJoinTableByTaskId(String sql, Object... args) {
+        String plan = explain(sql, args);
+
+        Assertions.assertTrue(plan.contains(": task_id = t.id"), plan);
+        Assertions.assertFalse(plan.contains("tb_task_item.tablescan"), plan);
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args)).toLowerCase();
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+    }
+}
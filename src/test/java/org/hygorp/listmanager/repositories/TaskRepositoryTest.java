@@ -1,6 +1,9 @@
 package org.hygorp.listmanager.repositories;
 
+import org.hygorp.listmanager.entities.ItemEntity;
 import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -10,6 +13,7 @@ import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -129,4 +133,21 @@ public class TaskRepositoryTest {
         Assertions.assertEquals(task, taskFoundedById);
         Assertions.assertEquals("School's Project", taskFoundedById.getTitle());
     }
+
+    @Test
+    @DisplayName("should generate time ordered ids and keep assigned ids")
+    @Order(6)
+    void shouldGenerateTimeOrderedIdsAndKeepAssignedIds() {
+        TaskEntity task = new TaskEntity("Dog's House", "Build a new house for the dog before winter", LocalDate.now().plusDays(15));
+        task.addItem(new ItemEntity("Buy Woods", "go to the lumber yard", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        TaskEntity savedTask = taskRepository.save(task);
+
+        UUID legacyId = UUID.randomUUID();
+        TaskEntity legacyTask = taskRepository.save(new TaskEntity(legacyId, "Garage", "organize the garage", LocalDate.now().plusDays(15)));
+
+        Assertions.assertEquals(7, savedTask.getId().version());
+        Assertions.assertEquals(7, savedTask.getItems().iterator().next().getId().version());
+        Assertions.assertEquals(legacyId, legacyTask.getId());
+        Assertions.assertTrue(taskRepository.findById(legacyId).isPresent());
+    }
 }
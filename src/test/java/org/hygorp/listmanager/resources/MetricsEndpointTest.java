@@ -0,0 +1,42 @@
+package org.hygorp.listmanager.resources;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@DisplayName("Metrics Endpoint Test")
+public class MetricsEndpointTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @DisplayName("should expose endpoint, repository, exception and pool metrics in prometheus format")
+    void shouldExposeEndpointRepositoryExceptionAndPoolMetricsInPrometheusFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/find-all")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tasks/find-all").param("cursor", "not-a-cursor")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks/find-by-id/" + UUID.randomUUID())).andExpect(status().isBadRequest());
+
+        String body = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        Assertions.assertTrue(body.matches("(?s).*http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/v1/tasks/find-all\",le=\"[^}]*\\}.*"));
+        Assertions.assertTrue(body.matches("(?s).*spring_data_repository_invocations_seconds_bucket\\{[^}]*method=\"findAllAfter\".*"));
+        Assertions.assertTrue(body.contains("tasks_service_exceptions_total{application=\"list-manager\",cause=\"Invalid cursor\",method=\"TaskService.findAll\"} 1.0"));
+        Assertions.assertTrue(body.contains("cause=\"Task not found with provided id\""));
+        Assertions.assertTrue(body.contains("hikaricp_connections_active{"));
+    }
+}
@@ -0,0 +1,139 @@
+package org.hygorp.listmanager.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.flywaydb.core.Flyway;
+import org.hygorp.listmanager.configurations.ReadYourWritesFilter;
+import org.hygorp.listmanager.configurations.ReplicaRoutingDataSource;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.records.TaskPageRequestDTO;
+import org.hygorp.listmanager.services.TaskService;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Replica Routing Test")
+public class ReplicaRoutingTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @DynamicPropertySource
+    static void dataSources(DynamicPropertyRegistry registry) {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+
+        registry.add("spring.datasource.url", () -> PRIMARY_URL);
+        registry.add("list-manager.datasource.replica.jdbc-url", () -> REPLICA_URL);
+        registry.add("list-manager.datasource.replica.username", () -> "sa");
+        registry.add("list-manager.datasource.read-your-writes-window", () -> "10s");
+        registry.add("spring.cache.type", () -> "caffeine");
+    }
+
+    @AfterEach
+    void afterEach() {
+        for (JdbcTemplate database : new JdbcTemplate[]{jdbcTemplate, replica}) {
+            database.update("DELETE FROM tb_task_item");
+            database.update("DELETE FROM tb_item");
+            database.update("DELETE FROM tb_task");
+        }
+    }
+
+    @Test
+    @DisplayName("should write to the primary and read from the replica")
+    @Order(1)
+    void shouldWriteToThePrimaryAndReadFromTheReplica() {
+        UUID id = taskService.save(new TaskEntity("Dog's House", "Build a new house for the dog before winter", LocalDate.now().plusDays(15))).getId();
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task WHERE id = ?", Long.class, id));
+        Assertions.assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM tb_task WHERE id = ?", Long.class, id));
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.findById(id));
+
+        replicate(id);
+
+        Assertions.assertEquals("Dog's House", taskService.findById(id).getTitle());
+    }
+
+    @Test
+    @DisplayName("should read from the primary right after the client's own write")
+    @Order(2)
+    void shouldReadFromThePrimaryRightAfterTheClientsOwnWrite() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/tasks/save")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Garage\", \"description\": \"organize the garage\", \"expiresAt\": \"" + LocalDate.now().plusDays(10) + "\"}"))
+                .andExpect(status().isCreated()).andReturn();
+
+        String id = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+        Cookie cookie = result.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        Assertions.assertNotNull(cookie);
+
+        mockMvc.perform(get("/api/v1/tasks/find-by-id/" + id).cookie(cookie))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tasks/find-by-id/" + id))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks/find-by-id/" + id).cookie(new Cookie(ReadYourWritesFilter.COOKIE, "0")))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should not serve a page cached from the replica to a client pinned to the primary")
+    @Order(3)
+    void shouldNotServeAPageCachedFromTheReplicaToAClientPinnedToThePrimary() {
+        TaskPageRequestDTO pageRequest = new TaskPageRequestDTO(null, 50, false, false);
+        UUID replicated = taskService.save(new TaskEntity("Dog's House", "Build a new house for the dog before winter", LocalDate.now().plusDays(15))).getId();
+        replicate(replicated);
+
+        taskService.save(new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10)));
+
+        Assertions.assertEquals(1, taskService.findAll(pageRequest).content().size());
+
+        ReplicaRoutingDataSource.usePrimary(true);
+        try {
+            Assertions.assertEquals(2, taskService.findAll(pageRequest).content().size());
+        } finally {
+            ReplicaRoutingDataSource.usePrimary(false);
+        }
+
+        Assertions.assertEquals(1, taskService.findAll(pageRequest).content().size());
+    }
+
+    private void replicate(UUID id) {
+        jdbcTemplate.query("SELECT id, title, description, created_at, updated_at, expires_at, version FROM tb_task WHERE id = ?", row -> {
+            replica.update("INSERT INTO tb_task (id, title, description, created_at, updated_at, expires_at, version) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    row.getObject(1), row.getString(2), row.getString(3), row.getDate(4), row.getDate(5), row.getDate(6), row.getLong(7));
+        }, id);
+    }
+}
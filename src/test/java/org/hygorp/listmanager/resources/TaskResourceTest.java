@@ -8,10 +8,12 @@ import org.hygorp.listmanager.entities.TaskEntity;
 import org.hygorp.listmanager.enums.ItemPriorityEnum;
 import org.hygorp.listmanager.enums.ItemStateEnum;
 import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.TaskService;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -19,8 +21,13 @@ import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.util.NoSuchElementException;
+import java.util.UUID;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -32,6 +39,9 @@ public class TaskResourceTest {
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private TaskService taskService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -84,6 +94,8 @@ public class TaskResourceTest {
                 ItemStateEnum.Completo
         ));
         myTaskTest03 = taskRepository.save(task03);
+
+        taskService.rebuildSearchIndex();
     }
 
     @AfterEach
@@ -148,7 +160,12 @@ public class TaskResourceTest {
 
         JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
 
-        Assertions.assertEquals(3, body.size());
+        Assertions.assertEquals(3, body.get("content").size());
+
+        JsonNode item = body.get("content").get(0).get("items").get(0);
+
+        Assertions.assertNotNull(item.get("description"));
+        Assertions.assertNull(item.get("taskId"));
     }
 
     @Test
@@ -162,7 +179,7 @@ public class TaskResourceTest {
 
         JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
 
-        Assertions.assertEquals(1, body.size());
+        Assertions.assertEquals(1, body.get("content").size());
     }
 
     @Test
@@ -176,7 +193,7 @@ public class TaskResourceTest {
 
         JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
 
-        Assertions.assertEquals(1, body.size());
+        Assertions.assertEquals(1, body.get("content").size());
     }
 
     @Test
@@ -190,7 +207,7 @@ public class TaskResourceTest {
 
         JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
 
-        Assertions.assertEquals(1, body.size());
+        Assertions.assertEquals(1, body.get("content").size());
     }
 
     @Test
@@ -204,7 +221,7 @@ public class TaskResourceTest {
 
         JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
 
-        Assertions.assertEquals(3, body.size());
+        Assertions.assertEquals(3, body.get("content").size());
     }
 
     @Test
@@ -222,7 +239,7 @@ public class TaskResourceTest {
 
         JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
 
-        Assertions.assertEquals(1, body.size());
+        Assertions.assertEquals(1, body.get("content").size());
     }
 
     @Test
@@ -317,4 +334,355 @@ public class TaskResourceTest {
 
         Assertions.assertEquals(0, body.get("items").size());
     }
+
+    @Test
+    @DisplayName("should return next cursor when more tasks are available and 200 status")
+    @Order(15)
+    void shouldReturnNextCursorWhenMoreTasksAreAvailableAndReturn200Status() throws Exception {
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/tasks/find-all")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("limit", "2"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode firstBody = objectMapper.readTree(firstPage.getResponse().getContentAsString());
+
+        Assertions.assertEquals(2, firstBody.get("content").size());
+        Assertions.assertFalse(firstBody.get("nextCursor").isNull());
+
+        MvcResult secondPage = mockMvc.perform(get("/api/v1/tasks/find-all")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("limit", "2")
+                        .param("cursor", firstBody.get("nextCursor").asText()))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode secondBody = objectMapper.readTree(secondPage.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, secondBody.get("content").size());
+        Assertions.assertTrue(secondBody.get("nextCursor").isNull());
+    }
+
+    @Test
+    @DisplayName("should return 400 status for malformed cursor")
+    @Order(16)
+    void shouldReturn400StatusForMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/find-all")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should find all tasks without items and return 200 status")
+    @Order(17)
+    void shouldFindAllTasksWithoutItemsAndReturn200Status() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/find-all")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("includeItems", "false"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode content = objectMapper.readTree(result.getResponse().getContentAsString()).get("content");
+
+        Assertions.assertEquals(3, content.size());
+        content.forEach(task -> Assertions.assertTrue(task.get("items").isNull()));
+    }
+
+    @Test
+    @DisplayName("should search tasks and return 200 status")
+    @Order(18)
+    void shouldSearchTasksAndReturn200Status() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .param("query", "lumber"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, body.get("content").size());
+        Assertions.assertEquals(myTaskTest02.getId().toString(), body.get("content").get(0).get("id").asText());
+    }
+
+    @Test
+    @DisplayName("should bulk import tasks and return 200 status")
+    @Order(19)
+    void shouldBulkImportTasksAndReturn200Status() throws Exception {
+        String expiresAt = LocalDate.now().plusDays(7).toString();
+
+        MvcResult result = mockMvc.perform(post("/api/v1/tasks/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"title\": \"Website\", \"description\": \"finalize grandpa’s workshop website\", \"expiresAt\": \"" + expiresAt + "\"}\n" +
+                                "{\"title\": \"Untitled\", \"expiresAt\": \"" + expiresAt + "\"}\n"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        Assertions.assertEquals(2, body.get("received").asInt());
+        Assertions.assertEquals(1, body.get("imported").asInt());
+        Assertions.assertEquals(1, body.get("errors").get(0).get("index").asInt());
+        Assertions.assertEquals(4, taskRepository.count());
+    }
+
+    @Test
+    @DisplayName("should stream every task as ndjson and return 200 status")
+    @Order(20)
+    void shouldStreamEveryTaskAsNdjsonAndReturn200Status() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/tasks/export"))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        MvcResult result = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON)).andReturn();
+
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+
+        Assertions.assertEquals(3, lines.length);
+        int items = 0;
+        for (String line : lines)
+            items += objectMapper.readTree(line).get("items").size();
+
+        Assertions.assertEquals(3, items);
+    }
+
+    @Test
+    @DisplayName("should reject unknown export format and return 400 status")
+    @Order(21)
+    void shouldRejectUnknownExportFormatAndReturn400Status() throws Exception {
+        mockMvc.perform(get("/api/v1/tasks/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should patch a single item and return 200 status")
+    @Order(22)
+    void shouldPatchASingleItemAndReturn200Status() throws Exception {
+        ItemEntity item = myTaskTest02.getItems().iterator().next();
+
+        MvcResult result = mockMvc.perform(patch("/api/v1/tasks/" + myTaskTest02.getId() + "/items/" + item.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\": \"Completo\"}"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        Assertions.assertEquals(item.getId().toString(), body.get("id").asText());
+        Assertions.assertEquals(item.getTitle(), body.get("title").asText());
+        Assertions.assertEquals("Completo", body.get("state").asText());
+    }
+
+    @Test
+    @DisplayName("should not patch an item of another task and return 400 status")
+    @Order(23)
+    void shouldNotPatchAnItemOfAnotherTaskAndReturn400Status() throws Exception {
+        ItemEntity item = myTaskTest02.getItems().iterator().next();
+
+        mockMvc.perform(patch("/api/v1/tasks/" + myTaskTest01.getId() + "/items/" + item.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\": \"Completo\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should create and delete a single item and return 201 and 204 status")
+    @Order(24)
+    void shouldCreateAndDeleteASingleItemAndReturn201And204Status() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/v1/tasks/" + myTaskTest03.getId() + "/items")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\": \"Build Front-End\", \"description\": \"Use React\", \"priority\": \"Media\", \"state\": \"Pendente\"}"))
+                .andExpect(status().isCreated()).andReturn();
+
+        String itemId = objectMapper.readTree(result.getResponse().getContentAsString()).get("id").asText();
+
+        mockMvc.perform(delete("/api/v1/tasks/" + myTaskTest03.getId() + "/items/" + itemId))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/v1/tasks/" + myTaskTest03.getId() + "/items"))
+                .andExpect(status().isNoContent());
+
+        Assertions.assertTrue(taskRepository.findById(myTaskTest03.getId()).orElseThrow().getItems().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should return 304 status when the task etag did not change")
+    @Order(25)
+    void shouldReturn304StatusWhenTheTaskEtagDidNotChange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/find-by-id/" + myTaskTest01.getId()))
+                .andExpect(status().isOk()).andReturn();
+
+        String eTag = result.getResponse().getHeader(HttpHeaders.ETAG);
+
+        Assertions.assertEquals("\"" + myTaskTest01.getVersion() + "\"", eTag);
+
+        mockMvc.perform(get("/api/v1/tasks/find-by-id/" + myTaskTest01.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("should update task with matching etag and return 412 status for a stale one")
+    @Order(26)
+    void shouldUpdateTaskWithMatchingEtagAndReturn412StatusForAStaleOne() throws Exception {
+        String staleETag = "\"" + myTaskTest01.getVersion() + "\"";
+        String content = objectMapper.writeValueAsString(new TaskEntity(
+                myTaskTest01.getId(),
+                "Complete the collection v2",
+                myTaskTest01.getDescription(),
+                myTaskTest01.getExpiresAt()
+        ));
+
+        MvcResult result = mockMvc.perform(put("/api/v1/tasks/update/" + myTaskTest01.getId())
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isOk()).andReturn();
+
+        Assertions.assertNotEquals(staleETag, result.getResponse().getHeader(HttpHeaders.ETAG));
+
+        mockMvc.perform(put("/api/v1/tasks/update/" + myTaskTest01.getId())
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get("/api/v1/tasks/find-by-id/" + myTaskTest01.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, staleETag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("should return 412 status when patching an item with a stale etag")
+    @Order(27)
+    void shouldReturn412StatusWhenPatchingAnItemWithAStaleEtag() throws Exception {
+        ItemEntity item = myTaskTest02.getItems().iterator().next();
+        String staleETag = "\"" + item.getVersion() + "\"";
+
+        mockMvc.perform(patch("/api/v1/tasks/" + myTaskTest02.getId() + "/items/" + item.getId())
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\": \"Fazendo\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (item.getVersion() + 1) + "\""));
+
+        mockMvc.perform(patch("/api/v1/tasks/" + myTaskTest02.getId() + "/items/" + item.getId())
+                        .header(HttpHeaders.IF_MATCH, staleETag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"state\": \"Completo\"}"))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("should stream task changes after commit as server-sent events")
+    @Order(28)
+    void shouldStreamTaskChangesAfterCommitAsServerSentEvents() throws Exception {
+        MvcResult changes = mockMvc.perform(get("/api/v1/tasks/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(delete("/api/v1/tasks/delete/" + myTaskTest03.getId()))
+                .andExpect(status().isNoContent());
+
+        String expected = "event:TaskDeleted\ndata:{\"type\":\"TaskDeleted\",\"taskId\":\"" + myTaskTest03.getId() + "\"}";
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!changes.getResponse().getContentAsString().contains(expected) && System.nanoTime() < deadline)
+            Thread.sleep(10);
+
+        Assertions.assertTrue(changes.getResponse().getContentAsString().contains(expected));
+        Assertions.assertTrue(changes.getResponse().getContentType().startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+    }
+
+    @Test
+    @DisplayName("should return global and per task stats and 200 status")
+    @Order(29)
+    void shouldReturnGlobalAndPerTaskStatsAnd200Status() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/" + myTaskTest03.getId() + "/stats"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode body = objectMapper.readTree(result.getResponse().getContentAsString());
+
+        Assertions.assertEquals(1, body.get("items").asLong());
+        Assertions.assertEquals(1, body.get("itemsByState").get("Completo").asLong());
+        Assertions.assertEquals(1, body.get("itemsByPriority").get("Alta").asLong());
+
+        mockMvc.perform(get("/api/v1/tasks/stats"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/tasks/" + UUID.randomUUID() + "/stats"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should query tasks with combined filters and return 200 status")
+    @Order(30)
+    void shouldQueryTasksWithCombinedFiltersAndReturn200Status() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/tasks/query")
+                        .param("title", myTaskTest03.getTitle())
+                        .param("state", "Completo", "Pendente")
+                        .param("priority", "Alta")
+                        .param("sort", "ExpiresAt")
+                        .param("direction", "DESC"))
+                .andExpect(status().isOk()).andReturn();
+
+        JsonNode content = objectMapper.readTree(result.getResponse().getContentAsString()).get("content");
+
+        Assertions.assertEquals(1, content.size());
+        Assertions.assertEquals(myTaskTest03.getId().toString(), content.get(0).get("id").asText());
+
+        mockMvc.perform(get("/api/v1/tasks/query").param("createdFrom", "not-a-date"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/tasks/query").param("state", "Unknown"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should update item state synchronously when write behind is disabled and return 200 status")
+    @Order(31)
+    void shouldUpdateItemStateSynchronouslyWhenWriteBehindIsDisabledAndReturn200Status() throws Exception {
+        UUID itemId = myTaskTest01.getItems().iterator().next().getId();
+
+        mockMvc.perform(put("/api/v1/tasks/" + myTaskTest01.getId() + "/items/" + itemId + "/state")
+                        .param("state", "Completo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("Completo"));
+
+        mockMvc.perform(put("/api/v1/tasks/" + myTaskTest02.getId() + "/items/" + itemId + "/state")
+                        .param("state", "Completo"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("should apply a batch once per idempotency key and return 200 status")
+    @Order(32)
+    void shouldApplyABatchOncePerIdempotencyKeyAndReturn200Status() throws Exception {
+        UUID itemId = myTaskTest01.getItems().iterator().next().getId();
+        String idempotencyKey = UUID.randomUUID().toString();
+        String batch = "{\"operations\": [" +
+                "{\"type\": \"UpdateItem\", \"taskId\": \"" + myTaskTest01.getId() + "\", \"itemId\": \"" + itemId + "\", \"state\": \"Completo\"}," +
+                "{\"type\": \"AddItem\", \"taskId\": \"" + myTaskTest02.getId() + "\", \"title\": \"Paint\", \"description\": \"choose a color\", \"priority\": \"Baixa\", \"state\": \"Pendente\"}" +
+                "]}";
+
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .header(TaskResource.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskResource.IDEMPOTENT_REPLAYED, "false"))
+                .andExpect(jsonPath("$.results.length()").value(2))
+                .andExpect(jsonPath("$.results[0].itemId").value(itemId.toString()));
+
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .header(TaskResource.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(batch))
+                .andExpect(status().isOk())
+                .andExpect(header().string(TaskResource.IDEMPOTENT_REPLAYED, "true"));
+
+        Assertions.assertEquals(2, taskRepository.findById(myTaskTest02.getId()).orElseThrow().getItems().size());
+
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .header(TaskResource.IDEMPOTENCY_KEY, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"type\": \"ClearItems\", \"taskId\": \"" + myTaskTest02.getId() + "\"}]}"))
+                .andExpect(status().isUnprocessableEntity());
+
+        mockMvc.perform(post("/api/v1/tasks/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\": [{\"type\": \"ClearItems\", \"taskId\": \"" + UUID.randomUUID() + "\"}]}"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,155 @@
+package org.hygorp.listmanager.resources;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.listmanager.ListManagerApplication;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@DisplayName("Thread Mode Load Test")
+public class ThreadModeLoadTest {
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 400);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 5));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 15));
+    private static final Path RESULTS = Path.of("target", "load-test-results.json");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("should compare platform and virtual thread request execution")
+    void shouldComparePlatformAndVirtualThreadRequestExecution() throws Exception {
+        List<Result> results = new ArrayList<>();
+
+        for (boolean virtualThreads : List.of(false, true)) {
+            try (ConfigurableApplicationContext context = start(virtualThreads)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                UUID taskId = context.getBean(TaskRepository.class)
+                        .save(new TaskEntity("Load test", "task read by the load test", LocalDate.now().plusDays(30)))
+                        .getId();
+
+                String mode = virtualThreads ? "virtual" : "platform";
+                URI findById = URI.create("http://localhost:" + port + "/api/v1/tasks/find-by-id/" + taskId);
+                URI save = URI.create("http://localhost:" + port + "/api/v1/tasks/save");
+                String body = "{\"title\": \"Load test\", \"description\": \"created by the load test\", \"expiresAt\": \""
+                        + LocalDate.now().plusDays(30) + "\"}";
+
+                results.add(run(mode, "find-by-id", () -> HttpRequest.newBuilder(findById).GET().build()));
+                results.add(run(mode, "save", () -> HttpRequest.newBuilder(save)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build()));
+            }
+        }
+
+        Files.createDirectories(RESULTS.getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(RESULTS.toFile(), results);
+
+        System.out.printf("%n%-10s %-12s %12s %12s %10s%n", "mode", "endpoint", "requests/s", "p99 (ms)", "errors");
+        results.forEach(result -> System.out.printf("%-10s %-12s %12.1f %12.2f %10d%n",
+                result.mode(), result.endpoint(), result.throughput(), result.p99Millis(), result.errors()));
+
+        results.forEach(result -> {
+            Assertions.assertEquals(0, result.errors(), result.mode() + " " + result.endpoint());
+            Assertions.assertTrue(result.requests() > 0, result.mode() + " " + result.endpoint());
+        });
+    }
+
+    private ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(ListManagerApplication.class)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.docker.compose.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "logging.level.root=WARN"
+                )
+                .run();
+    }
+
+    private Result run(String mode, String endpoint, RequestFactory requests) throws Exception {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(clients).connectTimeout(Duration.ofSeconds(10)).build()) {
+            long warmupEnd = System.nanoTime() + WARMUP.toNanos();
+            long end = warmupEnd + DURATION.toNanos();
+            AtomicLong errors = new AtomicLong();
+
+            List<Future<long[]>> futures = new ArrayList<>(CONCURRENCY);
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= end)
+                            break;
+
+                        try {
+                            HttpResponse<Void> response = httpClient.send(requests.create(), HttpResponse.BodyHandlers.discarding());
+
+                            if (response.statusCode() >= 400)
+                                errors.incrementAndGet();
+                        } catch (IOException exception) {
+                            errors.incrementAndGet();
+                        }
+
+                        if (start < warmupEnd)
+                            continue;
+
+                        if (count == latencies.length)
+                            latencies = Arrays.copyOf(latencies, count * 2);
+
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+
+                    return Arrays.copyOf(latencies, count);
+                }));
+            }
+
+            long[] latencies = new long[0];
+            for (Future<long[]> future : futures) {
+                long[] clientLatencies = future.get();
+                int offset = latencies.length;
+                latencies = Arrays.copyOf(latencies, offset + clientLatencies.length);
+                System.arraycopy(clientLatencies, 0, latencies, offset, clientLatencies.length);
+            }
+
+            Arrays.sort(latencies);
+
+            double p99 = latencies.length == 0 ? 0 : latencies[(int) Math.ceil(latencies.length * 0.99) - 1] / 1_000_000.0;
+            double throughput = latencies.length / (DURATION.toNanos() / 1_000_000_000.0);
+
+            return new Result(mode, endpoint, CONCURRENCY, latencies.length, errors.get(), throughput, p99);
+        }
+    }
+
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+
+    private record Result(String mode, String endpoint, int concurrency, long requests, long errors, double throughput, double p99Millis) {
+    }
+}
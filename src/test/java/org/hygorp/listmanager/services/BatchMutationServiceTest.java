@@ -0,0 +1,277 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hygorp.listmanager.entities.IdempotencyKeyEntity;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.BatchOperationTypeEnum;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.*;
+import org.hygorp.listmanager.repositories.IdempotencyKeyRepository;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Batch Mutation Service Test")
+public class BatchMutationServiceTest {
+    @Autowired
+    private BatchMutationService batchMutationService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @Test
+    @DisplayName("should create a task with items in one transaction with batched inserts")
+    @Order(1)
+    void shouldCreateATaskWithItemsInOneTransactionWithBatchedInserts() {
+        List<NewItemDTO> items = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            items.add(new NewItemDTO("Step " + i, "step number " + i, ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BatchResultDTO result = batchMutationService.execute(null, new BatchRequestDTO(List.of(
+                createTask("Dog's House", items),
+                new BatchOperationDTO(BatchOperationTypeEnum.AddItem, null, 0, null, "Paint", "choose a color",
+                        null, ItemPriorityEnum.Baixa, ItemStateEnum.Fazendo, null)
+        )));
+
+        UUID taskId = result.results().get(0).taskId();
+
+        Assertions.assertFalse(result.replayed());
+        Assertions.assertEquals(taskId, result.results().get(1).taskId());
+        Assertions.assertNotNull(result.results().get(1).itemId());
+        Assertions.assertEquals(1, statistics.getTransactionCount());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= 8, "statements: " + statistics.getPrepareStatementCount());
+        Assertions.assertEquals(11, taskService.findById(taskId).getItems().size());
+        Assertions.assertEquals(StatsDTO.of(1, 0, itemRepository.countGroupByStateAndPriority()), taskStatsService.stats());
+    }
+
+    @Test
+    @DisplayName("should mark every item complete and bump the task version once")
+    @Order(2)
+    void shouldMarkEveryItemCompleteAndBumpTheTaskVersionOnce() {
+        TaskEntity task = new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10));
+        for (int i = 0; i < 5; i++)
+            task.addItem(new ItemEntity("Shelf " + i, "mount shelf " + i, ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        TaskEntity savedTask = taskService.save(task);
+
+        List<BatchOperationDTO> operations = savedTask.getItems().stream()
+                .map(item -> new BatchOperationDTO(BatchOperationTypeEnum.UpdateItem, savedTask.getId(), null, item.getId(),
+                        null, null, null, null, ItemStateEnum.Completo, null))
+                .toList();
+
+        BatchResultDTO result = batchMutationService.execute(null, new BatchRequestDTO(operations));
+
+        TaskEntity updatedTask = taskService.findById(savedTask.getId());
+
+        Assertions.assertEquals(5, result.results().size());
+        Assertions.assertTrue(updatedTask.getItems().stream().allMatch(item -> item.getState() == ItemStateEnum.Completo));
+        Assertions.assertEquals(savedTask.getVersion() + 1, updatedTask.getVersion());
+        Assertions.assertEquals(5, taskStatsService.stats().itemsByState().get(ItemStateEnum.Completo));
+    }
+
+    @Test
+    @DisplayName("should roll back every operation when one of them fails")
+    @Order(3)
+    void shouldRollBackEveryOperationWhenOneOfThemFails() {
+        TaskServiceException exception = Assertions.assertThrows(TaskServiceException.class, () ->
+                batchMutationService.execute(null, new BatchRequestDTO(List.of(
+                        createTask("Dog's House", List.of(new NewItemDTO("Buy Woods", "go to the lumber yard", ItemPriorityEnum.Alta, ItemStateEnum.Pendente))),
+                        new BatchOperationDTO(BatchOperationTypeEnum.ClearItems, UUID.randomUUID(), null, null,
+                                null, null, null, null, null, null)
+                ))));
+
+        Assertions.assertEquals("Task not found at index 1", exception.getMessage());
+        Assertions.assertEquals(0, taskRepository.count());
+        Assertions.assertEquals(0, itemRepository.count());
+        Assertions.assertEquals(0, taskStatsService.stats().items());
+    }
+
+    @Test
+    @DisplayName("should replay the stored result when the idempotency key is retried")
+    @Order(4)
+    void shouldReplayTheStoredResultWhenTheIdempotencyKeyIsRetried() {
+        BatchRequestDTO request = new BatchRequestDTO(List.of(createTask("Dog's House", List.of())));
+
+        BatchResultDTO first = batchMutationService.execute("create-dogs-house", request);
+        BatchResultDTO retry = batchMutationService.execute("create-dogs-house", request);
+
+        Assertions.assertFalse(first.replayed());
+        Assertions.assertTrue(retry.replayed());
+        Assertions.assertEquals(first.results(), retry.results());
+        Assertions.assertEquals(1, taskRepository.count());
+
+        TaskServiceException exception = Assertions.assertThrows(TaskServiceException.class, () -> batchMutationService.execute(
+                "create-dogs-house", new BatchRequestDTO(List.of(createTask("Dog's Bed", List.of())))));
+
+        Assertions.assertEquals("Idempotency key reused", exception.getMessage());
+        Assertions.assertEquals(1, taskRepository.count());
+    }
+
+    @Test
+    @DisplayName("should remove items and delete tasks created in the same batch")
+    @Order(5)
+    void shouldRemoveItemsAndDeleteTasksCreatedInTheSameBatch() {
+        TaskEntity task = new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10));
+        task.addItem(new ItemEntity("Shelves", "mount the shelves", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        task.addItem(new ItemEntity("Boxes", "label the boxes", ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+        TaskEntity savedTask = taskService.save(task);
+        UUID itemId = savedTask.getItems().iterator().next().getId();
+
+        batchMutationService.execute(null, new BatchRequestDTO(List.of(
+                new BatchOperationDTO(BatchOperationTypeEnum.RemoveItem, savedTask.getId(), null, itemId,
+                        null, null, null, null, null, null),
+                createTask("Temporary", List.of(new NewItemDTO("Step", "first", ItemPriorityEnum.Alta, ItemStateEnum.Pendente))),
+                new BatchOperationDTO(BatchOperationTypeEnum.DeleteTask, null, 1, null,
+                        null, null, null, null, null, null)
+        )));
+
+        Assertions.assertEquals(1, taskRepository.count());
+        Assertions.assertEquals(1, itemRepository.count());
+        Assertions.assertTrue(itemRepository.findById(itemId).isEmpty());
+        Assertions.assertEquals(StatsDTO.of(1, 0, itemRepository.countGroupByStateAndPriority()), taskStatsService.stats());
+    }
+
+    @Test
+    @DisplayName("should purge expired idempotency keys")
+    @Order(6)
+    void shouldPurgeExpiredIdempotencyKeys() {
+        idempotencyKeyRepository.save(new IdempotencyKeyEntity("expired", "hash", "{}", LocalDateTime.now().minusDays(2)));
+        batchMutationService.execute("recent", new BatchRequestDTO(List.of(createTask("Dog's House", List.of()))));
+
+        batchMutationService.purgeIdempotencyKeys();
+
+        Assertions.assertFalse(idempotencyKeyRepository.existsById("expired"));
+        Assertions.assertTrue(idempotencyKeyRepository.existsById("recent"));
+    }
+
+    @Test
+    @DisplayName("should skip the idempotency key purge while another node holds the lease")
+    @Order(7)
+    void shouldSkipTheIdempotencyKeyPurgeWhileAnotherNodeHoldsTheLease() {
+        idempotencyKeyRepository.save(new IdempotencyKeyEntity("expired", "hash", "{}", LocalDateTime.now().minusDays(2)));
+
+        Assertions.assertTrue(leaseRepository.tryAcquire(BatchMutationService.LEASE, "other-node", Duration.ofMinutes(1)));
+        Assertions.assertEquals(0, batchMutationService.purgeIdempotencyKeys());
+        Assertions.assertTrue(idempotencyKeyRepository.existsById("expired"));
+
+        jdbcTemplate.update("UPDATE tb_lease SET expires_at = ? WHERE name = ?", LocalDate.now().minusDays(1).atStartOfDay(), BatchMutationService.LEASE);
+
+        Assertions.assertEquals(1, batchMutationService.purgeIdempotencyKeys());
+        Assertions.assertFalse(idempotencyKeyRepository.existsById("expired"));
+        Assertions.assertTrue(leaseRepository.tryAcquire(BatchMutationService.LEASE, "other-node", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("should remove tasks deleted in a batch from the search index")
+    @Order(8)
+    void shouldRemoveTasksDeletedInABatchFromTheSearchIndex() {
+        TaskEntity task = taskService.save(new TaskEntity("Aquarium", "clean the aquarium", LocalDate.now().plusDays(10)));
+        TaskPageRequestDTO pageRequest = new TaskPageRequestDTO(null, null, false, false);
+
+        Assertions.assertEquals(1, taskService.search("aquarium", pageRequest).content().size());
+
+        batchMutationService.execute(null, new BatchRequestDTO(List.of(
+                createTask("Aquarium filter", List.of()),
+                new BatchOperationDTO(BatchOperationTypeEnum.DeleteTask, null, 0, null, null, null, null, null, null, null),
+                new BatchOperationDTO(BatchOperationTypeEnum.DeleteTask, task.getId(), null, null, null, null, null, null, null, null)
+        )));
+
+        Assertions.assertTrue(taskService.search("aquarium", pageRequest).content().isEmpty());
+        Assertions.assertTrue(taskService.findByTitle("aquarium", pageRequest).content().isEmpty());
+        Assertions.assertTrue(taskSearchIndex.search("aquarium", false, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should count failures at different indexes in one metric series")
+    @Order(9)
+    void shouldCountFailuresAtDifferentIndexesInOneMetricSeries() {
+        BatchOperationDTO missingTask = new BatchOperationDTO(BatchOperationTypeEnum.DeleteTask, UUID.randomUUID(), null, null,
+                null, null, null, null, null, null);
+        double failures = meterRegistry.counter(TaskServiceExceptionMetrics.METRIC_NAME,
+                "cause", "Task not found", "method", "BatchMutationService.execute").count();
+
+        Assertions.assertThrows(TaskServiceException.class, () -> batchMutationService.execute(null, new BatchRequestDTO(List.of(missingTask))));
+        Assertions.assertThrows(TaskServiceException.class, () -> batchMutationService.execute(null, new BatchRequestDTO(List.of(
+                createTask("Dog's House", List.of()), missingTask))));
+
+        Assertions.assertEquals(failures + 2, meterRegistry.counter(TaskServiceExceptionMetrics.METRIC_NAME,
+                "cause", "Task not found", "method", "BatchMutationService.execute").count());
+        Assertions.assertTrue(meterRegistry.find(TaskServiceExceptionMetrics.METRIC_NAME).counters().stream()
+                .noneMatch(counter -> counter.getId().getTag("cause").contains("index")));
+    }
+
+    private BatchOperationDTO createTask(String title, List<NewItemDTO> items) {
+        return new BatchOperationDTO(BatchOperationTypeEnum.CreateTask, null, null, null, title, "created in a batch",
+                LocalDate.now().plusDays(15), null, null, items);
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_lease");
+        jdbcTemplate.update("DELETE FROM tb_idempotency_key");
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+    }
+}
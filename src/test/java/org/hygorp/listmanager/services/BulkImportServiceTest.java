@@ -0,0 +1,101 @@
+package org.hygorp.listmanager.services;
+
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.records.BulkImportResultDTO;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest(properties = "list-manager.bulk.chunk-size=2")
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Bulk Import Service Test")
+public class BulkImportServiceTest {
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    private final String expiresAt = LocalDate.now().plusDays(10).toString();
+
+    @BeforeEach
+    void beforeEach() {
+        taskRepository.deleteAll();
+    }
+
+    @AfterEach
+    void afterEach() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should import json array across chunks with items")
+    @Order(1)
+    void shouldImportJsonArrayAcrossChunksWithItems() {
+        String body = "[" +
+                task("Dog's House", "[" + item("Buy Woods") + "," + item("Buy Nails") + "]") + "," +
+                task("Website", "[]") + "," +
+                task("Garden", null) + "," +
+                task("School's Project", "[" + item("Buy Clay") + "]") + "," +
+                task("Paint Fence", null) +
+                "]";
+
+        BulkImportResultDTO result = bulkImportService.importJson(stream(body));
+
+        Assertions.assertEquals(5, result.received());
+        Assertions.assertEquals(5, result.imported());
+        Assertions.assertTrue(result.errors().isEmpty());
+
+        List<TaskEntity> tasks = taskRepository.findAll();
+        Assertions.assertEquals(5, tasks.size());
+
+        TaskEntity dogHouse = tasks.stream().filter(task -> task.getTitle().equals("Dog's House")).findFirst().orElseThrow();
+        Assertions.assertEquals(2, taskRepository.findById(dogHouse.getId()).orElseThrow().getItems().size());
+        Assertions.assertEquals(List.of(dogHouse.getId()), taskSearchIndex.search("nails", false, 0, 10));
+    }
+
+    @Test
+    @DisplayName("should report invalid ndjson records without aborting the batch")
+    @Order(2)
+    void shouldReportInvalidNdjsonRecordsWithoutAbortingTheBatch() {
+        String body = task("Dog's House", "[" + item("Buy Woods") + "]") + "\n" +
+                "{\"title\": \"\", \"description\": \"no title\", \"expiresAt\": \"" + expiresAt + "\"}\n" +
+                "{not json}\n" +
+                "\n" +
+                "{\"title\": \"Old\", \"description\": \"expired\", \"expiresAt\": \"2020-01-01\"}\n" +
+                task("Website", null) + "\n";
+
+        BulkImportResultDTO result = bulkImportService.importNdjson(stream(body));
+
+        Assertions.assertEquals(5, result.received());
+        Assertions.assertEquals(2, result.imported());
+        Assertions.assertEquals(List.of(1, 2, 3), result.errors().stream().map(error -> error.index()).toList());
+        Assertions.assertEquals("Invalid title", result.errors().get(0).message());
+        Assertions.assertEquals("Task expired", result.errors().get(2).message());
+        Assertions.assertEquals(2, taskRepository.count());
+    }
+
+    private String task(String title, String items) {
+        return "{\"title\": \"" + title + "\", \"description\": \"imported task\", \"expiresAt\": \"" + expiresAt + "\""
+                + (items == null ? "" : ", \"items\": " + items) + "}";
+    }
+
+    private String item(String title) {
+        return "{\"title\": \"" + title + "\", \"description\": \"imported item\", \"priority\": \"Media\", \"state\": \"Pendente\"}";
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
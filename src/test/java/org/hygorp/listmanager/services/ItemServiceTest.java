@@ -0,0 +1,179 @@
+package org.hygorp.listmanager.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemPatchDTO;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.TaskBatchRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Item Service Test")
+public class ItemServiceTest {
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private TaskEntity smallTask;
+    private TaskEntity largeTask;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+
+        smallTask = task("Dog's House", 5);
+        largeTask = task("Inventory", 5000);
+
+        transactionTemplate.executeWithoutResult(status -> taskBatchRepository.insertAll(List.of(smallTask, largeTask)));
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+    }
+
+    @Test
+    @DisplayName("should add an item to a task")
+    @Order(1)
+    void shouldAddAnItemToATask() {
+        ItemEntity item = itemService.addItem(smallTask.getId(),
+                new ItemEntity("Buy Nails", "go to the hardware store", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+
+        TaskEntity task = taskService.findById(smallTask.getId());
+
+        Assertions.assertEquals(6, task.getItems().size());
+        Assertions.assertTrue(task.findItem(item.getId()).isPresent());
+        Assertions.assertEquals(LocalDate.now(), task.getUpdatedAt());
+        Assertions.assertEquals(List.of(smallTask.getId()), taskSearchIndex.search("hardware", false, 0, 10));
+    }
+
+    @Test
+    @DisplayName("should patch only the provided item fields")
+    @Order(2)
+    void shouldPatchOnlyTheProvidedItemFields() {
+        ItemEntity item = smallTask.getItems().iterator().next();
+
+        ItemEntity updatedItem = itemService.updateItem(smallTask.getId(), item.getId(), new ItemPatchDTO(null, null, null, ItemStateEnum.Completo), null);
+
+        Assertions.assertEquals(item.getTitle(), updatedItem.getTitle());
+        Assertions.assertEquals(ItemStateEnum.Completo, itemRepository.findById(item.getId()).orElseThrow().getState());
+    }
+
+    @Test
+    @DisplayName("should not touch items of another task")
+    @Order(3)
+    void shouldNotTouchItemsOfAnotherTask() {
+        UUID otherTaskItem = largeTask.getItems().iterator().next().getId();
+
+        Assertions.assertThrows(TaskServiceException.class, () -> itemService.updateItem(smallTask.getId(), otherTaskItem,
+                new ItemPatchDTO("Stolen", null, null, null), null));
+        Assertions.assertThrows(TaskServiceException.class, () -> itemService.removeItem(smallTask.getId(), otherTaskItem));
+        Assertions.assertTrue(itemRepository.existsById(otherTaskItem));
+    }
+
+    @Test
+    @DisplayName("should reject invalid items and unknown tasks")
+    @Order(4)
+    void shouldRejectInvalidItemsAndUnknownTasks() {
+        Assertions.assertThrows(TaskServiceException.class, () -> itemService.addItem(smallTask.getId(),
+                new ItemEntity(" ", "blank title", ItemPriorityEnum.Media, ItemStateEnum.Pendente)));
+        Assertions.assertThrows(TaskServiceException.class, () -> itemService.addItem(UUID.randomUUID(),
+                new ItemEntity("Orphan", "no task", ItemPriorityEnum.Media, ItemStateEnum.Pendente)));
+        Assertions.assertEquals(5, itemRepository.findIdsByTaskId(smallTask.getId()).size());
+    }
+
+    @Test
+    @DisplayName("should remove one item and clear all items")
+    @Order(5)
+    void shouldRemoveOneItemAndClearAllItems() {
+        UUID itemId = largeTask.getItems().iterator().next().getId();
+
+        itemService.removeItem(largeTask.getId(), itemId);
+
+        Assertions.assertFalse(itemRepository.existsById(itemId));
+        Assertions.assertEquals(4999, itemRepository.findIdsByTaskId(largeTask.getId()).size());
+
+        itemService.clearItems(largeTask.getId());
+
+        Assertions.assertTrue(itemRepository.findIdsByTaskId(largeTask.getId()).isEmpty());
+        Assertions.assertEquals(5, itemRepository.count());
+    }
+
+    @Test
+    @DisplayName("should cost the same statements on a task with 5 or 5000 items")
+    @Order(6)
+    void shouldCostTheSameStatementsOnATaskWith5Or5000Items() {
+        Assertions.assertEquals(statements(smallTask), statements(largeTask));
+    }
+
+    private long statements(TaskEntity task) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        UUID itemId = task.getItems().iterator().next().getId();
+
+        statistics.clear();
+
+        ItemEntity item = itemService.addItem(task.getId(), new ItemEntity("Extra", "one more", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        itemService.updateItem(task.getId(), itemId, new ItemPatchDTO("Renamed", null, ItemPriorityEnum.Alta, null), null);
+        itemService.removeItem(task.getId(), item.getId());
+
+        Assertions.assertEquals(0, statistics.getCollectionLoadCount());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+        taskSearchIndex.clear();
+    }
+
+    private TaskEntity task(String title, int items) {
+        TaskEntity task = new TaskEntity(UUID.randomUUID(), title, "task with " + items + " items", LocalDate.now().plusDays(30));
+
+        for (int i = 0; i < items; i++)
+            task.addItem(new ItemEntity("Item " + i, "item " + i + " of " + title, ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+
+        task.setCreatedAt(LocalDate.now());
+        task.setUpdatedAt(null);
+
+        return task;
+    }
+}
@@ -0,0 +1,292 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest(properties = {
+        "list-manager.write-behind.enabled=true",
+        "list-manager.write-behind.flush-interval=1h",
+        "list-manager.write-behind.batch-size=4"
+})
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Item State Write Behind Test")
+public class ItemStateWriteBehindTest {
+    @Autowired
+    private ItemStateWriteBehind itemStateWriteBehind;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TaskEntity task;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+
+        TaskEntity newTask = new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10));
+        for (int i = 0; i < 6; i++)
+            newTask.addItem(new ItemEntity("Shelf " + i, "mount shelf " + i, ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        task = taskService.save(newTask);
+    }
+
+    @AfterEach
+    void afterEach() {
+        itemStateWriteBehind.flush();
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @Test
+    @DisplayName("should coalesce state changes per item and write them in one flush")
+    @Order(1)
+    void shouldCoalesceStateChangesPerItemAndWriteThemInOneFlush() {
+        UUID itemId = task.getItems().iterator().next().getId();
+        double coalesced = meterRegistry.counter("items.write-behind.coalesced").count();
+
+        itemStateWriteBehind.enqueue(task.getId(), itemId, ItemStateEnum.Fazendo);
+        itemStateWriteBehind.enqueue(task.getId(), itemId, ItemStateEnum.Completo);
+        itemStateWriteBehind.enqueue(task.getId(), itemId, ItemStateEnum.Fazendo);
+
+        Assertions.assertEquals(1, itemStateWriteBehind.depth());
+        Assertions.assertEquals(1.0, meterRegistry.get("items.write-behind.queue.depth").gauge().value());
+        Assertions.assertEquals(coalesced + 2, meterRegistry.counter("items.write-behind.coalesced").count());
+        Assertions.assertEquals(ItemStateEnum.Pendente, itemRepository.findById(itemId).orElseThrow().getState());
+
+        Assertions.assertEquals(1, itemStateWriteBehind.flush());
+
+        ItemEntity item = itemRepository.findById(itemId).orElseThrow();
+        Assertions.assertEquals(ItemStateEnum.Fazendo, item.getState());
+        Assertions.assertEquals(1, item.getVersion());
+        Assertions.assertEquals(task.getVersion() + 1, taskRepository.findById(task.getId()).orElseThrow().getVersion());
+        Assertions.assertEquals(0, itemStateWriteBehind.depth());
+        Assertions.assertEquals(1, taskStatsService.stats().itemsByState().get(ItemStateEnum.Fazendo));
+    }
+
+    @Test
+    @DisplayName("should flush on its own once the batch size is reached")
+    @Order(2)
+    void shouldFlushOnItsOwnOnceTheBatchSizeIsReached() throws InterruptedException {
+        List<UUID> itemIds = new ArrayList<>(task.getItems().stream().map(ItemEntity::getId).toList());
+
+        for (UUID itemId : itemIds.subList(0, 4))
+            itemStateWriteBehind.enqueue(task.getId(), itemId, ItemStateEnum.Completo);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && countItems(ItemStateEnum.Completo) < 4)
+            Thread.sleep(20);
+
+        Assertions.assertEquals(4, countItems(ItemStateEnum.Completo));
+        Assertions.assertEquals(0, itemStateWriteBehind.depth());
+    }
+
+    @Test
+    @DisplayName("should drop changes for items that do not belong to the task")
+    @Order(3)
+    void shouldDropChangesForItemsThatDoNotBelongToTheTask() {
+        UUID itemId = task.getItems().iterator().next().getId();
+
+        itemStateWriteBehind.enqueue(UUID.randomUUID(), itemId, ItemStateEnum.Cancelado);
+        itemStateWriteBehind.enqueue(task.getId(), UUID.randomUUID(), ItemStateEnum.Cancelado);
+        itemStateWriteBehind.flush();
+
+        Assertions.assertEquals(0, countItems(ItemStateEnum.Cancelado));
+        Assertions.assertEquals(task.getVersion(), taskRepository.findById(task.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("should write pending changes on shutdown")
+    @Order(4)
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    void shouldWritePendingChangesOnShutdown() throws InterruptedException {
+        UUID itemId = task.getItems().iterator().next().getId();
+
+        itemStateWriteBehind.enqueue(task.getId(), itemId, ItemStateEnum.Completo);
+        itemStateWriteBehind.shutdown();
+
+        Assertions.assertEquals(ItemStateEnum.Completo, itemRepository.findById(itemId).orElseThrow().getState());
+    }
+
+    @Test
+    @DisplayName("should keep changes queued while transactions cannot be opened and count them as lost at shutdown")
+    @Order(5)
+    void shouldKeepChangesQueuedWhileTransactionsCannotBeOpenedAndCountThemAsLostAtShutdown() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionTemplate unavailable = new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                attempts.incrementAndGet();
+                throw new CannotCreateTransactionException("Database unavailable");
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        });
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ItemStateWriteBehind writeBehind = new ItemStateWriteBehind(namedParameterJdbcTemplate, unavailable, taskStatsService,
+                eventPublisher, cacheService, registry, true, Duration.ofMillis(20), 4, 10);
+
+        writeBehind.enqueue(task.getId(), task.getItems().iterator().next().getId(), ItemStateEnum.Completo);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline && attempts.get() < 3)
+            Thread.sleep(20);
+
+        Assertions.assertTrue(attempts.get() >= 3);
+        Assertions.assertEquals(1, writeBehind.depth());
+
+        writeBehind.shutdown();
+        int attemptsAfterShutdown = attempts.get();
+
+        Assertions.assertTrue(attemptsAfterShutdown >= 6);
+        Assertions.assertEquals(0, writeBehind.depth());
+        Assertions.assertEquals(1.0, registry.counter("items.write-behind.lost").count());
+        Assertions.assertEquals(0, countItems(ItemStateEnum.Completo));
+    }
+
+    @Test
+    @DisplayName("should reject new items without flushing on the caller thread when the queue is full")
+    @Order(6)
+    void shouldRejectNewItemsWithoutFlushingOnTheCallerThreadWhenTheQueueIsFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ItemStateWriteBehind writeBehind = new ItemStateWriteBehind(namedParameterJdbcTemplate, transactionTemplate, taskStatsService,
+                eventPublisher, cacheService, registry, false, Duration.ofHours(1), 10, 2);
+        List<UUID> itemIds = task.getItems().stream().map(ItemEntity::getId).toList();
+
+        Assertions.assertTrue(writeBehind.enqueue(task.getId(), itemIds.get(0), ItemStateEnum.Completo));
+        Assertions.assertTrue(writeBehind.enqueue(task.getId(), itemIds.get(1), ItemStateEnum.Completo));
+        Assertions.assertFalse(writeBehind.enqueue(task.getId(), itemIds.get(2), ItemStateEnum.Completo));
+        Assertions.assertTrue(writeBehind.enqueue(task.getId(), itemIds.get(1), ItemStateEnum.Fazendo));
+
+        Assertions.assertEquals(2, writeBehind.depth());
+        Assertions.assertEquals(0, countItems(ItemStateEnum.Completo));
+        Assertions.assertEquals(1.0, registry.counter("items.write-behind.rejected").count());
+
+        Assertions.assertEquals(2, writeBehind.flush());
+        Assertions.assertTrue(writeBehind.enqueue(task.getId(), itemIds.get(2), ItemStateEnum.Completo));
+        Assertions.assertEquals(1, writeBehind.flush());
+    }
+
+    @Test
+    @DisplayName("should count a batch and its item counters only once its transaction commits")
+    @Order(7)
+    void shouldCountABatchAndItsItemCountersOnlyOnceItsTransactionCommits() {
+        AtomicInteger commits = new AtomicInteger();
+        TransactionTemplate failingOnce = new TransactionTemplate(new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                if (commits.incrementAndGet() > 1) {
+                    transactionManager.commit(status);
+                    return;
+                }
+
+                transactionManager.rollback(status);
+                throw new TransactionSystemException("Commit failed");
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        });
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ItemStateWriteBehind writeBehind = new ItemStateWriteBehind(namedParameterJdbcTemplate, failingOnce, taskStatsService,
+                eventPublisher, cacheService, registry, false, Duration.ofHours(1), 10, 10);
+        UUID itemId = task.getItems().iterator().next().getId();
+
+        writeBehind.enqueue(task.getId(), itemId, ItemStateEnum.Completo);
+        writeBehind.enqueue(UUID.randomUUID(), UUID.randomUUID(), ItemStateEnum.Completo);
+
+        Assertions.assertThrows(TransactionSystemException.class, writeBehind::flush);
+        Assertions.assertEquals(2, writeBehind.depth());
+        Assertions.assertEquals(0.0, registry.counter("items.write-behind.flushed").count());
+        Assertions.assertEquals(0.0, registry.counter("items.write-behind.dropped").count());
+        Assertions.assertEquals(0, taskStatsService.stats().itemsByState().get(ItemStateEnum.Completo));
+
+        Assertions.assertEquals(2, writeBehind.flush());
+        Assertions.assertEquals(1.0, registry.counter("items.write-behind.flushed").count());
+        Assertions.assertEquals(1.0, registry.counter("items.write-behind.dropped").count());
+        Assertions.assertEquals(1, taskStatsService.stats().itemsByState().get(ItemStateEnum.Completo));
+        Assertions.assertEquals(ItemStateEnum.Completo, itemRepository.findById(itemId).orElseThrow().getState());
+    }
+
+    private long countItems(ItemStateEnum state) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_item WHERE state = ?", Long.class, state.name());
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+    }
+}
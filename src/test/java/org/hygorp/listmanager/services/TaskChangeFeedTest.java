@@ -0,0 +1,148 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hygorp.listmanager.enums.TaskChangeTypeEnum;
+import org.hygorp.listmanager.records.TaskChangeEventDTO;
+import org.junit.jupiter.api.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Change Feed Test")
+public class TaskChangeFeedTest {
+    private SimpleMeterRegistry meterRegistry;
+    private TaskChangeFeed taskChangeFeed;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        taskChangeFeed = new TaskChangeFeed(meterRegistry, 2, Duration.ofMinutes(5), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void afterEach() {
+        taskChangeFeed.shutdown();
+    }
+
+    @Test
+    @DisplayName("should deliver events to every subscriber in order")
+    @Order(1)
+    void shouldDeliverEventsToEverySubscriberInOrder() throws Exception {
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0));
+        RecordingEmitter second = new RecordingEmitter(new CountDownLatch(0));
+        taskChangeFeed.subscribe(first);
+        taskChangeFeed.subscribe(second);
+
+        UUID taskId = UUID.randomUUID();
+        taskChangeFeed.publish(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskCreated, taskId));
+        taskChangeFeed.publish(new TaskChangeEventDTO(TaskChangeTypeEnum.ItemCreated, taskId, UUID.randomUUID()));
+
+        Assertions.assertEquals(List.of("TaskCreated", "ItemCreated"), first.awaitEvents(2));
+        Assertions.assertEquals(List.of("TaskCreated", "ItemCreated"), second.awaitEvents(2));
+        Assertions.assertEquals(2, taskChangeFeed.subscribers());
+    }
+
+    @Test
+    @DisplayName("should replace the backlog of a slow subscriber with a resync event")
+    @Order(2)
+    void shouldReplaceTheBacklogOfASlowSubscriberWithAResyncEvent() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        taskChangeFeed.subscribe(slow);
+
+        taskChangeFeed.publish(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskCreated, UUID.randomUUID()));
+        Assertions.assertTrue(slow.sending.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 5; i++)
+            taskChangeFeed.publish(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskUpdated, UUID.randomUUID()));
+
+        release.countDown();
+
+        Assertions.assertEquals(List.of("TaskCreated", "Resync"), slow.awaitEvents(2));
+        Assertions.assertEquals(1.0, meterRegistry.get("tasks.changes.overflows").counter().count());
+    }
+
+    @Test
+    @DisplayName("should drop subscribers whose connection was closed")
+    @Order(3)
+    void shouldDropSubscribersWhoseConnectionWasClosed() throws Exception {
+        RecordingEmitter emitter = new RecordingEmitter(new CountDownLatch(0));
+        taskChangeFeed.subscribe(emitter);
+        emitter.fail = true;
+
+        taskChangeFeed.publish(new TaskChangeEventDTO(TaskChangeTypeEnum.TaskDeleted, UUID.randomUUID()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (taskChangeFeed.subscribers() > 0 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+
+        Assertions.assertEquals(0, taskChangeFeed.subscribers());
+        Assertions.assertEquals(0.0, meterRegistry.get("tasks.changes.subscribers").gauge().value());
+    }
+
+    @Test
+    @DisplayName("should not keep a subscriber whose connection closed while subscribing")
+    @Order(4)
+    void shouldNotKeepASubscriberWhoseConnectionClosedWhileSubscribing() {
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public synchronized void onCompletion(Runnable callback) {
+                callback.run();
+            }
+        };
+
+        taskChangeFeed.subscribe(emitter);
+
+        Assertions.assertEquals(0, taskChangeFeed.subscribers());
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch release;
+        private volatile boolean fail;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (fail)
+                throw new IOException("Broken pipe");
+
+            sending.countDown();
+
+            try {
+                release.await();
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                throw new IOException(exception);
+            }
+
+            String raw = builder.build().stream()
+                    .map(data -> data.getData().toString())
+                    .collect(Collectors.joining());
+
+            int start = raw.indexOf("event:");
+            if (start >= 0)
+                events.add(raw.substring(start + 6, raw.indexOf('\n', start)));
+        }
+
+        List<String> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline)
+                Thread.sleep(10);
+
+            return List.copyOf(events);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.StatsDTO;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskExpiryRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@SpringBootTest(properties = "list-manager.expiry.batch-size=2")
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Expiry Service Test")
+public class TaskExpiryServiceTest {
+    @Autowired
+    private TaskExpiryService taskExpiryService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TaskExpiryRepository taskExpiryRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @Test
+    @DisplayName("should mark expired tasks and cancel their open items")
+    @Order(1)
+    void shouldMarkExpiredTasksAndCancelTheirOpenItems() {
+        TaskEntity expired = taskRepository.save(task("Garage", LocalDate.now().minusDays(2)));
+        TaskEntity current = taskRepository.save(task("Website", LocalDate.now()));
+        for (int i = 0; i < 4; i++)
+            taskRepository.save(task("Old " + i, LocalDate.now().minusDays(1)));
+        taskStatsService.rebuildCounters();
+
+        double expiredTasks = meterRegistry.counter("tasks.expiry.tasks").count();
+        double cancelledItems = meterRegistry.counter("tasks.expiry.items").count();
+
+        Assertions.assertEquals(5, taskExpiryService.expire());
+
+        TaskEntity expiredTask = taskService.findById(expired.getId());
+        TaskEntity currentTask = taskService.findById(current.getId());
+
+        Assertions.assertNotNull(expiredTask.getExpiredAt());
+        Assertions.assertEquals(expired.getVersion() + 1, expiredTask.getVersion());
+        Assertions.assertEquals(2, expiredTask.getItems().stream().filter(item -> item.getState() == ItemStateEnum.Cancelado).count());
+        Assertions.assertEquals(1, expiredTask.getItems().stream().filter(item -> item.getState() == ItemStateEnum.Completo).count());
+        Assertions.assertNull(currentTask.getExpiredAt());
+        Assertions.assertEquals(2, currentTask.getItems().stream().filter(item -> item.getState() != ItemStateEnum.Completo).count());
+        Assertions.assertEquals(StatsDTO.of(6, 5, itemRepository.countGroupByStateAndPriority()), taskStatsService.stats());
+        Assertions.assertEquals(expiredTasks + 5, meterRegistry.counter("tasks.expiry.tasks").count());
+        Assertions.assertEquals(cancelledItems + 10, meterRegistry.counter("tasks.expiry.items").count());
+        Assertions.assertTrue(meterRegistry.get("tasks.expiry.lag").gauge().value() >= Duration.ofDays(1).toSeconds());
+        Assertions.assertTrue(meterRegistry.get("tasks.expiry.batch").timer().count() >= 3);
+        Assertions.assertEquals(0, taskExpiryService.expire());
+    }
+
+    @Test
+    @DisplayName("should skip the run while another node holds the lease")
+    @Order(2)
+    void shouldSkipTheRunWhileAnotherNodeHoldsTheLease() {
+        TaskEntity expired = taskRepository.save(task("Garage", LocalDate.now().minusDays(1)));
+        double skipped = meterRegistry.counter("tasks.expiry.skipped").count();
+
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskExpiryService.LEASE, "other-node", Duration.ofMinutes(1)));
+        Assertions.assertEquals(0, taskExpiryService.expire());
+        Assertions.assertNull(taskService.findById(expired.getId()).getExpiredAt());
+        Assertions.assertEquals(skipped + 1, meterRegistry.counter("tasks.expiry.skipped").count());
+
+        jdbcTemplate.update("UPDATE tb_lease SET expires_at = ? WHERE name = ?", LocalDate.now().minusDays(1).atStartOfDay(), TaskExpiryService.LEASE);
+
+        Assertions.assertEquals(1, taskExpiryService.expire());
+        Assertions.assertNotNull(taskService.findById(expired.getId()).getExpiredAt());
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskExpiryService.LEASE, "other-node", Duration.ofMinutes(1)));
+        Assertions.assertFalse(leaseRepository.tryAcquire(TaskExpiryService.LEASE, "third-node", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    @DisplayName("should expire every task once when several nodes run together")
+    @Order(3)
+    void shouldExpireEveryTaskOnceWhenSeveralNodesRunTogether() throws Exception {
+        for (int i = 0; i < 40; i++)
+            taskRepository.save(task("Old " + i, LocalDate.now().minusDays(1 + i % 3)));
+        taskStatsService.rebuildCounters();
+
+        List<Callable<Integer>> nodes = List.of(node(), node(), node());
+        int expired = 0;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(nodes.size())) {
+            for (Future<Integer> result : executor.invokeAll(nodes))
+                expired += result.get();
+        }
+
+        while (taskExpiryRepository.findOldestExpiresAt(LocalDate.now()).isPresent())
+            expired += node().call();
+
+        Assertions.assertEquals(40, expired);
+        Assertions.assertEquals(40, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_task WHERE expired_at IS NOT NULL AND version = 1", Integer.class));
+        Assertions.assertEquals(StatsDTO.of(40, 40, itemRepository.countGroupByStateAndPriority()), taskStatsService.stats());
+        Assertions.assertEquals(80, taskStatsService.stats().itemsByState().get(ItemStateEnum.Cancelado));
+    }
+
+    @Test
+    @DisplayName("should clear the expiry mark when the expiration date is extended")
+    @Order(4)
+    void shouldClearTheExpiryMarkWhenTheExpirationDateIsExtended() {
+        TaskEntity expired = taskRepository.save(task("Garage", LocalDate.now().minusDays(1)));
+        taskExpiryService.expire();
+
+        TaskEntity task = taskService.findById(expired.getId());
+        TaskEntity extended = taskService.update(expired.getId(),
+                new TaskEntity(task.getTitle(), task.getDescription(), LocalDate.now().plusDays(5)), task.getVersion());
+
+        Assertions.assertNull(extended.getExpiredAt());
+        Assertions.assertEquals(0, taskExpiryService.expire());
+    }
+
+    @Test
+    @DisplayName("should only mark and return tasks that are still expired when updated")
+    @Order(5)
+    void shouldOnlyMarkAndReturnTasksThatAreStillExpiredWhenUpdated() {
+        TaskEntity expired = taskRepository.save(task("Garage", LocalDate.now().minusDays(1)));
+        TaskEntity extended = taskRepository.save(task("Website", LocalDate.now().minusDays(1)));
+        List<UUID> candidates = taskExpiryRepository.findExpiredIds(LocalDate.now(), 10);
+
+        jdbcTemplate.update("UPDATE tb_task SET expires_at = ? WHERE id = ?", LocalDate.now().plusDays(5), extended.getId());
+
+        List<UUID> marked = transactionTemplate.execute(status -> taskExpiryRepository.markExpired(candidates, LocalDate.now()));
+
+        Assertions.assertEquals(2, candidates.size());
+        Assertions.assertEquals(List.of(expired.getId()), marked);
+        Assertions.assertNull(taskService.findById(extended.getId()).getExpiredAt());
+        Assertions.assertEquals(2, taskService.findById(extended.getId()).getItems().stream()
+                .filter(item -> item.getState() != ItemStateEnum.Completo && item.getState() != ItemStateEnum.Cancelado).count());
+    }
+
+    private Callable<Integer> node() {
+        TaskExpiryService node = new TaskExpiryService(taskExpiryRepository, leaseRepository, taskStatsService, cacheService,
+                transactionTemplate, eventPublisher, new SimpleMeterRegistry(), true, 2, Duration.ofMinutes(1));
+
+        return node::expire;
+    }
+
+    private TaskEntity task(String title, LocalDate expiresAt) {
+        TaskEntity task = new TaskEntity(title, "task " + title, expiresAt);
+        task.addItem(new ItemEntity("Pending", "pending step", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        task.addItem(new ItemEntity("Doing", "step in progress", ItemPriorityEnum.Media, ItemStateEnum.Fazendo));
+        task.addItem(new ItemEntity("Done", "finished step", ItemPriorityEnum.Baixa, ItemStateEnum.Completo));
+        task.setCreatedAt(LocalDate.now().minusDays(10));
+
+        return task;
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_lease");
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+    }
+}
@@ -0,0 +1,82 @@
+package org.hygorp.listmanager.services;
+
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/h2/export-heap;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;CACHE_SIZE=8192",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+@DisplayName("Task Export Service Heap Test")
+public class TaskExportServiceHeapTest {
+    private static final int TASKS = 20_000;
+    private static final int ITEMS_PER_TASK = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @BeforeAll
+    static void beforeAll() throws IOException {
+        FileSystemUtils.deleteRecursively(Path.of("target", "h2"));
+    }
+
+    @BeforeEach
+    void beforeEach() {
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbcTemplate.update("INSERT INTO tb_task (id, title, description, created_at, expires_at) " +
+                "SELECT RANDOM_UUID(), 'Generated task ' || \"X\", " +
+                "'generated task number ' || \"X\" || ' used to check that the export keeps the heap flat', " +
+                "CURRENT_DATE, DATEADD(DAY, 30, CURRENT_DATE) FROM SYSTEM_RANGE(1, ?)", TASKS);
+        jdbcTemplate.update("INSERT INTO tb_task_item (task_id, item_id) " +
+                "SELECT t.id, RANDOM_UUID() FROM tb_task t, SYSTEM_RANGE(1, ?)", ITEMS_PER_TASK);
+        jdbcTemplate.update("INSERT INTO tb_item (id, title, description, priority, state) " +
+                "SELECT ti.item_id, 'Generated item of task ' || ti.task_id, " +
+                "REPEAT('generated item description ', 120), 'Media', 'Pendente' " +
+                "FROM tb_task_item ti WHERE NOT EXISTS (SELECT 1 FROM tb_item i WHERE i.id = ti.item_id)");
+        jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY TRUE");
+    }
+
+    @Test
+    @DisplayName("should stream a dataset larger than the heap as ndjson")
+    void shouldStreamADatasetLargerThanTheHeapAsNdjson() {
+        CountingOutputStream output = new CountingOutputStream();
+        long tasks = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task", Long.class);
+
+        taskExportService.exportNdjson(output);
+
+        Assertions.assertEquals(tasks, output.lines);
+        Assertions.assertTrue(output.bytes > Runtime.getRuntime().maxMemory());
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n')
+                lines++;
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++)
+                if (buffer[i] == '\n')
+                    lines++;
+        }
+    }
+}
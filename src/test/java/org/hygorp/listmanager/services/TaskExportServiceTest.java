@@ -0,0 +1,106 @@
+package org.hygorp.listmanager.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Objects;
+
+@SpringBootTest(properties = "list-manager.export.fetch-size=2")
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Export Service Test")
+public class TaskExportServiceTest {
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TaskEntity dogHouse;
+
+    private TaskEntity website;
+
+    @BeforeEach
+    void beforeEach() {
+        taskRepository.deleteAll();
+
+        TaskEntity task01 = new TaskEntity(
+                "Dog's House",
+                "Build a new house for the dog, before winter",
+                LocalDate.now().plusDays(15)
+        );
+        task01.addItem(new ItemEntity("Buy Woods", "Go to the \"lumber yard\"", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        task01.addItem(new ItemEntity("Buy Nails", "Hardware store", ItemPriorityEnum.Baixa, ItemStateEnum.Completo));
+        dogHouse = taskRepository.save(task01);
+
+        TaskEntity task02 = new TaskEntity("Website", "finalize grandpa’s workshop website", LocalDate.now().minusDays(1));
+        task02.setExpiredAt(LocalDate.now().atStartOfDay());
+        website = taskRepository.save(task02);
+    }
+
+    @AfterEach
+    void afterEach() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should export one ndjson line per task with its items")
+    @Order(1)
+    void shouldExportOneNdjsonLinePerTaskWithItsItems() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        taskExportService.exportNdjson(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, lines.length);
+
+        for (String line : lines) {
+            JsonNode task = objectMapper.readTree(line);
+
+            if (task.get("id").asText().equals(dogHouse.getId().toString())) {
+                Assertions.assertEquals(2, task.get("items").size());
+                Assertions.assertNull(task.get("items").get(0).get("taskId"));
+            } else {
+                Assertions.assertEquals("Website", task.get("title").asText());
+                Assertions.assertEquals(0, task.get("items").size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should export one escaped csv row per item")
+    @Order(2)
+    void shouldExportOneEscapedCsvRowPerItem() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        taskExportService.exportCsv(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertEquals("task_id,task_title,task_description,task_created_at,task_updated_at,task_expires_at,task_expired_at," +
+                "item_id,item_title,item_description,item_priority,item_state", lines[0]);
+        Assertions.assertTrue(Arrays.asList(lines).contains(String.join(",", website.getId().toString(), "Website",
+                "finalize grandpa’s workshop website", website.getCreatedAt().toString(), Objects.toString(website.getUpdatedAt(), ""),
+                website.getExpiresAt().toString(), website.getExpiredAt().toString(), "", "", "", "", "")));
+
+        long dogHouseRows = Arrays.stream(lines)
+                .filter(line -> line.startsWith(dogHouse.getId() + ",Dog's House,\"Build a new house for the dog, before winter\""))
+                .count();
+        Assertions.assertEquals(2, dogHouseRows);
+        Assertions.assertTrue(output.toString(StandardCharsets.UTF_8).contains("\"Go to the \"\"lumber yard\"\"\""));
+    }
+}
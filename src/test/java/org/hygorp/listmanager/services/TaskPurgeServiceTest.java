@@ -0,0 +1,192 @@
+package org.hygorp.listmanager.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.BatchOperationTypeEnum;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.BatchOperationDTO;
+import org.hygorp.listmanager.records.BatchRequestDTO;
+import org.hygorp.listmanager.records.StatsDTO;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest(properties = "list-manager.soft-delete.batch-size=2")
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Purge Service Test")
+public class TaskPurgeServiceTest {
+    @Autowired
+    private TaskPurgeService taskPurgeService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private BatchMutationService batchMutationService;
+
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @Test
+    @DisplayName("should hide a deleted task while keeping its row until the purge")
+    @Order(1)
+    void shouldHideADeletedTaskWhileKeepingItsRowUntilThePurge() throws Exception {
+        TaskEntity deleted = taskService.save(task("Garage", 3));
+        TaskEntity kept = taskService.save(task("Website", 2));
+
+        taskService.delete(deleted.getId());
+
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.findById(deleted.getId()));
+        Assertions.assertEquals(1, taskRepository.count());
+        Assertions.assertTrue(taskSearchIndex.search("Garage", false, 0, 10).isEmpty());
+        Assertions.assertEquals(StatsDTO.of(1, 0, itemRepository.countGroupByStateAndPriority()), taskStatsService.stats());
+        Assertions.assertEquals(2, taskStatsService.stats().itemsByState().get(ItemStateEnum.Pendente));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        taskExportService.exportNdjson(output);
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+
+        Assertions.assertEquals(1, lines.length);
+        Assertions.assertEquals(kept.getId().toString(), objectMapper.readTree(lines[0]).get("id").asText());
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM tb_task WHERE id = ? AND deleted_at IS NOT NULL", Integer.class, deleted.getId()));
+        Assertions.assertEquals(5, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_item", Integer.class));
+    }
+
+    @Test
+    @DisplayName("should purge deleted tasks with their items in batches")
+    @Order(2)
+    void shouldPurgeDeletedTasksWithTheirItemsInBatches() {
+        TaskEntity kept = taskService.save(task("Website", 2));
+        for (int i = 0; i < 3; i++)
+            taskService.delete(taskService.save(task("Garage " + i, 3)).getId());
+
+        double purgedTasks = meterRegistry.counter("tasks.purge.tasks").count();
+        double purgedItems = meterRegistry.counter("tasks.purge.items").count();
+
+        Assertions.assertEquals(3, taskPurgeService.purge());
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task", Integer.class));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_item", Integer.class));
+        Assertions.assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task_item", Integer.class));
+        Assertions.assertEquals(2, taskService.findById(kept.getId()).getItems().size());
+        Assertions.assertEquals(purgedTasks + 3, meterRegistry.counter("tasks.purge.tasks").count());
+        Assertions.assertEquals(purgedItems + 9, meterRegistry.counter("tasks.purge.items").count());
+        Assertions.assertEquals(0.0, meterRegistry.get("tasks.purge.backlog").gauge().value());
+        Assertions.assertEquals(0, taskPurgeService.purge());
+    }
+
+    @Test
+    @DisplayName("should not delete a task twice")
+    @Order(3)
+    void shouldNotDeleteATaskTwice() {
+        TaskEntity task = taskService.save(task("Garage", 3));
+
+        taskService.delete(task.getId());
+        Long version = jdbcTemplate.queryForObject("SELECT version FROM tb_task WHERE id = ?", Long.class, task.getId());
+        taskService.delete(task.getId());
+
+        Assertions.assertEquals(version, jdbcTemplate.queryForObject("SELECT version FROM tb_task WHERE id = ?", Long.class, task.getId()));
+        Assertions.assertEquals(0, taskStatsService.stats().itemsByState().get(ItemStateEnum.Pendente));
+    }
+
+    @Test
+    @DisplayName("should soft delete an existing task in a batch")
+    @Order(4)
+    void shouldSoftDeleteAnExistingTaskInABatch() {
+        TaskEntity task = taskService.save(task("Garage", 3));
+
+        batchMutationService.execute(null, new BatchRequestDTO(List.of(new BatchOperationDTO(
+                BatchOperationTypeEnum.DeleteTask, task.getId(), null, null, null, null, null, null, null, null))));
+
+        Assertions.assertEquals(0, taskRepository.count());
+        Assertions.assertEquals(1, taskPurgeService.purge());
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_item", Integer.class));
+    }
+
+    @Test
+    @DisplayName("should skip the purge while another node holds the lease")
+    @Order(5)
+    void shouldSkipThePurgeWhileAnotherNodeHoldsTheLease() {
+        taskService.delete(taskService.save(task("Garage", 3)).getId());
+        double skipped = meterRegistry.counter("tasks.purge.skipped").count();
+
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskPurgeService.LEASE, "other-node", Duration.ofMinutes(1)));
+        Assertions.assertEquals(0, taskPurgeService.purge());
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task", Integer.class));
+        Assertions.assertEquals(skipped + 1, meterRegistry.counter("tasks.purge.skipped").count());
+
+        jdbcTemplate.update("UPDATE tb_lease SET expires_at = ? WHERE name = ?", LocalDate.now().minusDays(1).atStartOfDay(), TaskPurgeService.LEASE);
+
+        Assertions.assertEquals(1, taskPurgeService.purge());
+        Assertions.assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task", Integer.class));
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskPurgeService.LEASE, "other-node", Duration.ofMinutes(1)));
+    }
+
+    private TaskEntity task(String title, int items) {
+        TaskEntity task = new TaskEntity(title, "task " + title, LocalDate.now().plusDays(10));
+        for (int i = 0; i < items; i++)
+            task.addItem(new ItemEntity("Step " + i, "step number " + i, ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+
+        return task;
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_lease");
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+    }
+}
@@ -0,0 +1,123 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskSearchChangeRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Search Index Sync Test")
+public class TaskSearchIndexSyncTest {
+    @Autowired
+    private TaskSearchIndexSync taskSearchIndexSync;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private TaskSearchChangeRepository taskSearchChangeRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+        taskSearchIndexSync.start();
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+    }
+
+    @Test
+    @DisplayName("should apply changes committed by another node to the local index")
+    @Order(1)
+    void shouldApplyChangesCommittedByAnotherNodeToTheLocalIndex() {
+        TaskSearchIndex otherIndex = new TaskSearchIndex();
+        TaskSearchIndexSync otherNode = node(otherIndex);
+        otherNode.start();
+
+        UUID taskId = taskService.save(new TaskEntity("Aquarium", "clean the aquarium", LocalDate.now().plusDays(5))).getId();
+
+        Assertions.assertEquals(1, otherNode.sync());
+        Assertions.assertEquals(List.of(taskId), otherIndex.search("aquarium", true, 0, 10));
+        Assertions.assertEquals(0, otherNode.sync());
+
+        taskService.update(taskId, new TaskEntity("Terrarium", "clean the terrarium", LocalDate.now().plusDays(5)), null);
+        itemService.addItem(taskId, new ItemEntity("Buy gravel", "fine gravel for the floor", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+
+        Assertions.assertEquals(1, otherNode.sync());
+        Assertions.assertTrue(otherIndex.search("aquarium", true, 0, 10).isEmpty());
+        Assertions.assertEquals(List.of(taskId), otherIndex.search("terrarium", true, 0, 10));
+        Assertions.assertEquals(List.of(taskId), otherIndex.search("gravel", false, 0, 10));
+
+        taskService.delete(taskId);
+
+        Assertions.assertEquals(1, otherNode.sync());
+        Assertions.assertTrue(otherIndex.search("terrarium", false, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should not reload changes made by the node itself")
+    @Order(2)
+    void shouldNotReloadChangesMadeByTheNodeItself() {
+        taskService.save(new TaskEntity("Aquarium", "clean the aquarium", LocalDate.now().plusDays(5)));
+
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task_search_change", Integer.class));
+        Assertions.assertEquals(0, taskSearchIndexSync.sync());
+    }
+
+    @Test
+    @DisplayName("should prune changes older than the retention while holding the lease")
+    @Order(3)
+    void shouldPruneChangesOlderThanTheRetentionWhileHoldingTheLease() {
+        taskService.save(new TaskEntity("Aquarium", "clean the aquarium", LocalDate.now().plusDays(5)));
+        taskService.save(new TaskEntity("Terrarium", "clean the terrarium", LocalDate.now().plusDays(5)));
+        jdbcTemplate.update("UPDATE tb_task_search_change SET changed_at = ? WHERE id = (SELECT MIN(id) FROM tb_task_search_change)",
+                LocalDate.now().minusDays(1).atStartOfDay());
+
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskSearchIndexSync.LEASE, "other-node", Duration.ofMinutes(1)));
+        Assertions.assertEquals(0, taskSearchIndexSync.prune());
+
+        jdbcTemplate.update("UPDATE tb_lease SET expires_at = ? WHERE name = ?", LocalDate.now().minusDays(1).atStartOfDay(), TaskSearchIndexSync.LEASE);
+
+        Assertions.assertEquals(1, taskSearchIndexSync.prune());
+        Assertions.assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_task_search_change", Integer.class));
+    }
+
+    private TaskSearchIndexSync node(TaskSearchIndex index) {
+        return new TaskSearchIndexSync(taskSearchChangeRepository, index, leaseRepository, new SimpleMeterRegistry(),
+                Duration.ofMinutes(1), Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_lease");
+        jdbcTemplate.update("DELETE FROM tb_task_search_change");
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+    }
+}
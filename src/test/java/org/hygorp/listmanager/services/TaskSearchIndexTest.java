@@ -0,0 +1,116 @@
+package org.hygorp.listmanager.services;
+
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Search Index Test")
+public class TaskSearchIndexTest {
+    private TaskSearchIndex taskSearchIndex;
+
+    private final UUID dogHouse = UUID.randomUUID();
+    private final UUID website = UUID.randomUUID();
+    private final UUID garden = UUID.randomUUID();
+
+    @BeforeEach
+    void beforeEach() {
+        taskSearchIndex = new TaskSearchIndex();
+
+        taskSearchIndex.index(dogHouse, "Construir casa do PET", "Uma casa confortável para o cachorro", List.of(
+                new TaskSearchIndex.IndexedItem(UUID.randomUUID(), "Comprar Madeiras", "Pesquisar madeiras resistentes")
+        ));
+        taskSearchIndex.index(website, "Website", "Finalize grandpa's workshop website", List.of(
+                new TaskSearchIndex.IndexedItem(UUID.randomUUID(), "Pick a theme", "choose colors for the house page")
+        ));
+        taskSearchIndex.index(garden, "Garden", "Plant trees around the house", List.of());
+    }
+
+    @Test
+    @DisplayName("should rank title matches above description and item matches")
+    @Order(1)
+    void shouldRankTitleMatchesAboveDescriptionAndItemMatches() {
+        taskSearchIndex.index(dogHouse, "Dog house", "Build a house for the dog", List.of());
+
+        List<UUID> result = taskSearchIndex.search("house", false, 0, 10);
+
+        Assertions.assertEquals(List.of(dogHouse, garden, website), result);
+    }
+
+    @Test
+    @DisplayName("should match prefixes, ignore accents and require every token")
+    @Order(2)
+    void shouldMatchPrefixesIgnoreAccentsAndRequireEveryToken() {
+        Assertions.assertEquals(List.of(dogHouse), taskSearchIndex.search("confortavel", false, 0, 10));
+        Assertions.assertEquals(List.of(dogHouse), taskSearchIndex.search("madei", false, 0, 10));
+        Assertions.assertEquals(List.of(website), taskSearchIndex.search("theme colors", false, 0, 10));
+        Assertions.assertTrue(taskSearchIndex.search("theme cachorro", false, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should restrict title only searches to titles")
+    @Order(3)
+    void shouldRestrictTitleOnlySearchesToTitles() {
+        Assertions.assertEquals(List.of(website), taskSearchIndex.search("web", true, 0, 10));
+        Assertions.assertTrue(taskSearchIndex.search("madeiras", true, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should keep item terms when reindexing without loaded items")
+    @Order(4)
+    void shouldKeepItemTermsWhenReindexingWithoutLoadedItems() {
+        taskSearchIndex.index(website, "Portfolio", "Finalize grandpa's workshop website", null);
+
+        Assertions.assertEquals(List.of(website), taskSearchIndex.search("theme", false, 0, 10));
+        Assertions.assertEquals(List.of(website), taskSearchIndex.search("portfolio", true, 0, 10));
+        Assertions.assertTrue(taskSearchIndex.search("website", true, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should remove task from index")
+    @Order(5)
+    void shouldRemoveTaskFromIndex() {
+        taskSearchIndex.remove(website);
+
+        Assertions.assertTrue(taskSearchIndex.search("theme", false, 0, 10).isEmpty());
+        Assertions.assertEquals(2, taskSearchIndex.size());
+    }
+
+    @Test
+    @DisplayName("should page through ranked results")
+    @Order(6)
+    void shouldPageThroughRankedResults() {
+        taskSearchIndex.index(dogHouse, "Dog house", "Build a house for the dog", List.of());
+
+        List<UUID> all = taskSearchIndex.search("house", false, 0, 10);
+
+        Assertions.assertEquals(all.subList(0, 2), taskSearchIndex.search("house", false, 0, 2));
+        Assertions.assertEquals(all.subList(2, 3), taskSearchIndex.search("house", false, 2, 2));
+    }
+
+    @Test
+    @DisplayName("should index, replace and remove single items incrementally")
+    @Order(7)
+    void shouldIndexReplaceAndRemoveSingleItemsIncrementally() {
+        UUID nails = UUID.randomUUID();
+        UUID paint = UUID.randomUUID();
+
+        taskSearchIndex.indexItem(garden, new TaskSearchIndex.IndexedItem(nails, "Buy nails", "hardware store"));
+        taskSearchIndex.indexItem(garden, new TaskSearchIndex.IndexedItem(paint, "Buy paint", "hardware store"));
+
+        Assertions.assertEquals(List.of(garden), taskSearchIndex.search("nails", false, 0, 10));
+
+        taskSearchIndex.indexItem(garden, new TaskSearchIndex.IndexedItem(nails, "Buy screws", "hardware store"));
+        Assertions.assertTrue(taskSearchIndex.search("nails", false, 0, 10).isEmpty());
+        Assertions.assertEquals(List.of(garden), taskSearchIndex.search("screws", false, 0, 10));
+
+        taskSearchIndex.removeItem(garden, nails);
+        Assertions.assertTrue(taskSearchIndex.search("screws", false, 0, 10).isEmpty());
+        Assertions.assertEquals(List.of(garden), taskSearchIndex.search("hardware", false, 0, 10));
+
+        taskSearchIndex.clearItems(garden);
+        Assertions.assertTrue(taskSearchIndex.search("hardware", false, 0, 10).isEmpty());
+        Assertions.assertEquals(List.of(garden), taskSearchIndex.search("garden", false, 0, 10));
+    }
+}
@@ -0,0 +1,124 @@
+package org.hygorp.listmanager.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.CacheStatsDTO;
+import org.hygorp.listmanager.records.TaskPageRequestDTO;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+@SpringBootTest(properties = "spring.cache.type=caffeine")
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Service Cache Test")
+public class TaskServiceCacheTest {
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID myTaskTestId;
+
+    @BeforeEach
+    void beforeEach() {
+        taskRepository.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+
+        myTaskTestId = taskRepository.save(new TaskEntity(
+                "Website",
+                "finalize grandpa’s workshop website",
+                LocalDate.now().plusDays(7)
+        )).getId();
+    }
+
+    @AfterEach
+    void afterEach() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should serve repeated find by id from cache")
+    @Order(1)
+    void shouldServeRepeatedFindByIdFromCache() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        taskService.findById(myTaskTestId);
+        statistics.clear();
+        TaskEntity cached = taskService.findById(myTaskTestId);
+
+        Assertions.assertEquals("Website", cached.getTitle());
+        Assertions.assertEquals(0, statistics.getPrepareStatementCount());
+
+        CacheStatsDTO stats = cacheService.stats().stream()
+                .filter(cache -> cache.name().equals("tasks"))
+                .findFirst().orElseThrow();
+
+        Assertions.assertTrue(stats.hits() >= 1);
+        Assertions.assertTrue(stats.misses() >= 1);
+    }
+
+    @Test
+    @DisplayName("should evict cached task on update and item changes")
+    @Order(2)
+    void shouldEvictCachedTaskOnUpdateAndItemChanges() {
+        TaskEntity task = taskService.findById(myTaskTestId);
+
+        taskService.update(myTaskTestId, new TaskEntity(
+                myTaskTestId,
+                "Website v2",
+                task.getDescription(),
+                task.getExpiresAt()
+        ), null);
+
+        Assertions.assertEquals("Website v2", taskService.findById(myTaskTestId).getTitle());
+
+        taskService.addItem(myTaskTestId, new ItemEntity(
+                "Pick a theme",
+                "choose colors and fonts",
+                ItemPriorityEnum.Baixa,
+                ItemStateEnum.Pendente
+        ));
+
+        Assertions.assertEquals(1, taskService.findById(myTaskTestId).getItems().size());
+    }
+
+    @Test
+    @DisplayName("should evict cached pages when a task is saved")
+    @Order(3)
+    void shouldEvictCachedPagesWhenTaskIsSaved() {
+        TaskPageRequestDTO pageRequest = new TaskPageRequestDTO(null, null, true, true);
+
+        Assertions.assertEquals(1, taskService.findAll(pageRequest).content().size());
+        Assertions.assertSame(taskService.findAll(pageRequest), taskService.findAll(pageRequest));
+
+        taskService.save(new TaskEntity(
+                "Dog's House",
+                "Build a new house for the dog before winter",
+                LocalDate.now().plusDays(15)
+        ));
+
+        Assertions.assertEquals(2, taskService.findAll(pageRequest).content().size());
+    }
+}
@@ -0,0 +1,76 @@
+package org.hygorp.listmanager.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.Signature;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.Proxy;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Service Exception Metrics Test")
+public class TaskServiceExceptionMetricsTest {
+    private MeterRegistry meterRegistry;
+    private TaskServiceExceptionMetrics metrics;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        metrics = new TaskServiceExceptionMetrics(meterRegistry);
+    }
+
+    @Test
+    @DisplayName("should count an exception once at the service it was thrown from")
+    @Order(1)
+    void shouldCountAnExceptionOnceAtTheServiceItWasThrownFrom() {
+        TaskServiceException exception = new TaskServiceException("Task not found with provided id: 1");
+
+        metrics.count(joinPoint(TaskService.class, "findById"), exception);
+        metrics.count(joinPoint(BatchMutationService.class, "execute"), exception);
+
+        Assertions.assertEquals(1, meterRegistry.find(TaskServiceExceptionMetrics.METRIC_NAME).counters().size());
+        Assertions.assertEquals(1, meterRegistry.get(TaskServiceExceptionMetrics.METRIC_NAME)
+                .tag("cause", "Task not found with provided id")
+                .tag("method", "TaskService.findById")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("should count every distinct exception")
+    @Order(2)
+    void shouldCountEveryDistinctException() {
+        metrics.count(joinPoint(TaskService.class, "findAll"), new TaskServiceException("Invalid cursor"));
+        metrics.count(joinPoint(TaskService.class, "findAll"), new TaskServiceException("Invalid cursor"));
+
+        Assertions.assertEquals(2, meterRegistry.get(TaskServiceExceptionMetrics.METRIC_NAME)
+                .tag("method", "TaskService.findAll")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("should strip the batch index from the cause")
+    @Order(3)
+    void shouldStripTheBatchIndexFromTheCause() {
+        metrics.count(joinPoint(BatchMutationService.class, "execute"), new TaskServiceException("Invalid item at index 37"));
+        metrics.count(joinPoint(BatchMutationService.class, "execute"), new TaskServiceException("Invalid item at index 12"));
+
+        Assertions.assertEquals(1, meterRegistry.find(TaskServiceExceptionMetrics.METRIC_NAME).counters().size());
+        Assertions.assertEquals(2, meterRegistry.get(TaskServiceExceptionMetrics.METRIC_NAME)
+                .tag("cause", "Invalid item")
+                .counter().count());
+    }
+
+    private JoinPoint joinPoint(Class<?> type, String method) {
+        Signature signature = (Signature) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Signature.class},
+                (proxy, invoked, arguments) -> switch (invoked.getName()) {
+                    case "getDeclaringType" -> type;
+                    case "getName" -> method;
+                    default -> null;
+                });
+
+        return (JoinPoint) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{JoinPoint.class},
+                (proxy, invoked, arguments) -> invoked.getName().equals("getSignature") ? signature : null);
+    }
+}
@@ -1,17 +1,34 @@
 package org.hygorp.listmanager.services;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.hygorp.listmanager.entities.ItemEntity;
 import org.hygorp.listmanager.entities.TaskEntity;
 import org.hygorp.listmanager.enums.ItemPriorityEnum;
 import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.enums.TaskSortEnum;
+import org.hygorp.listmanager.records.CursorPageDTO;
+import org.hygorp.listmanager.records.TaskCursor;
+import org.hygorp.listmanager.records.TaskDetailDTO;
+import org.hygorp.listmanager.records.TaskPageRequestDTO;
+import org.hygorp.listmanager.records.TaskQueryDTO;
+import org.hygorp.listmanager.repositories.TaskBatchRepository;
 import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
 
 @SpringBootTest
@@ -25,6 +42,18 @@ public class TaskServiceTest {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
 
     private UUID myTaskTestId01;
     private UUID myTaskTestId02;
@@ -44,6 +73,8 @@ public class TaskServiceTest {
                 "finalize grandpa’s workshop website",
                 LocalDate.now().plusDays(7)
         )).getId();
+
+        taskService.rebuildSearchIndex();
     }
 
     @AfterEach
@@ -77,7 +108,7 @@ public class TaskServiceTest {
 
         savedTask.setTitle("Complete the leaf collection");
 
-        TaskEntity updatedTask = Assertions.assertDoesNotThrow(() -> taskService.update(savedTask.getId(), savedTask));
+        TaskEntity updatedTask = Assertions.assertDoesNotThrow(() -> taskService.update(savedTask.getId(), savedTask, null));
 
         Assertions.assertEquals("Complete the leaf collection", updatedTask.getTitle());
         Assertions.assertEquals(savedTask.getDescription(), updatedTask.getDescription());
@@ -133,7 +164,7 @@ public class TaskServiceTest {
         item.setPriority(ItemPriorityEnum.Alta);
         item.setState(ItemStateEnum.Fazendo);
 
-        TaskEntity updatedTask = Assertions.assertDoesNotThrow(() -> taskService.updateItem(savedTask.getId(), item));
+        TaskEntity updatedTask = Assertions.assertDoesNotThrow(() -> taskService.updateItem(savedTask.getId(), item, null));
 
         ItemEntity updatedItem = updatedTask.getItems().iterator().next();
 
@@ -236,14 +267,14 @@ public class TaskServiceTest {
     @DisplayName("should find all tasks")
     @Order(8)
     void shouldFindAllTasks() {
-        Assertions.assertEquals(2, taskService.findAll().size());
+        Assertions.assertEquals(2, taskService.findAll(new TaskPageRequestDTO(null, null, true, true)).content().size());
     }
 
     @Test
     @DisplayName(("should find tasks by title"))
     @Order(9)
     void shouldFindTasksByTitle() {
-        Assertions.assertEquals(1, taskService.findByTitle("Website").size());
+        Assertions.assertEquals(1, taskService.findByTitle("Website", new TaskPageRequestDTO(null, null, true, true)).content().size());
     }
 
     @Test
@@ -255,4 +286,349 @@ public class TaskServiceTest {
         Assertions.assertNotNull(taskFoundById);
         Assertions.assertEquals("Website", taskFoundById.getTitle());
     }
+
+    @Test
+    @DisplayName("should page through all tasks with cursor")
+    @Order(11)
+    void shouldPageThroughAllTasksWithCursor() {
+        for (int i = 0; i < 5; i++) {
+            taskRepository.save(new TaskEntity(
+                    "Chore " + i,
+                    "weekly chore number " + i,
+                    LocalDate.now().plusDays(3)
+            ));
+        }
+
+        Set<UUID> seen = new HashSet<>();
+        String cursor = null;
+        int pages = 0;
+
+        do {
+            CursorPageDTO<TaskDetailDTO> page = taskService.findAll(new TaskPageRequestDTO(cursor, 3, false, false));
+            page.content().forEach(task -> Assertions.assertTrue(seen.add(task.id())));
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertEquals(7, seen.size());
+        Assertions.assertEquals(3, pages);
+    }
+
+    @Test
+    @DisplayName("should reject malformed cursor and invalid limit")
+    @Order(12)
+    void shouldRejectMalformedCursorAndInvalidLimit() {
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.findAll(new TaskPageRequestDTO("not-a-cursor", 10, true, true)));
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.findAll(new TaskPageRequestDTO(null, 0, true, true)));
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.findAll(new TaskPageRequestDTO(null, 501, true, true)));
+    }
+
+    @Test
+    @DisplayName("should load a page of tasks with items in a constant number of statements")
+    @Order(13)
+    void shouldLoadPageOfTasksWithItemsInConstantNumberOfStatements() {
+        for (int i = 0; i < 20; i++) {
+            TaskEntity task = new TaskEntity(
+                    "Garden " + i,
+                    "tidy up garden bed " + i,
+                    LocalDate.now().plusDays(10)
+            );
+            task.addItem(new ItemEntity("Weed", "remove weeds", ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+            task.addItem(new ItemEntity("Water", "water plants", ItemPriorityEnum.Media, ItemStateEnum.Fazendo));
+            taskRepository.save(task);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        CursorPageDTO<TaskDetailDTO> withItems = taskService.findAll(new TaskPageRequestDTO(null, 50, true, true));
+
+        Assertions.assertEquals(22, withItems.content().size());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(40, withItems.content().stream().mapToInt(task -> task.items().size()).sum());
+
+        statistics.clear();
+        CursorPageDTO<TaskDetailDTO> withoutItems = taskService.findAll(new TaskPageRequestDTO(null, 50, false, false));
+
+        Assertions.assertEquals(22, withoutItems.content().size());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertNull(withoutItems.content().get(0).items());
+    }
+
+    @Test
+    @DisplayName("should skip item descriptions when not requested")
+    @Order(14)
+    void shouldSkipItemDescriptionsWhenNotRequested() {
+        TaskEntity task = taskRepository.findById(myTaskTestId01).orElseThrow();
+        task.addItem(new ItemEntity("Buy album", "an album to store the leaves", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        taskRepository.save(task);
+
+        TaskDetailDTO withDescriptions = taskService.findByTitle("collection", new TaskPageRequestDTO(null, null, true, true)).content().get(0);
+        TaskDetailDTO withoutDescriptions = taskService.findByTitle("collection", new TaskPageRequestDTO(null, null, true, false)).content().get(0);
+
+        Assertions.assertEquals("an album to store the leaves", withDescriptions.items().get(0).description());
+        Assertions.assertEquals("Buy album", withoutDescriptions.items().get(0).title());
+        Assertions.assertNull(withoutDescriptions.items().get(0).description());
+    }
+
+    @Test
+    @DisplayName("should search tasks by item text")
+    @Order(15)
+    void shouldSearchTasksByItemText() {
+        TaskEntity task = new TaskEntity(
+                "Dog's House",
+                "Build a new house for the dog before winter",
+                LocalDate.now().plusDays(15)
+        );
+        task.addItem(new ItemEntity("Buy Nails", "go to the hardware store", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        UUID taskId = taskService.save(task).getId();
+
+        CursorPageDTO<TaskDetailDTO> result = taskService.search("hardware", new TaskPageRequestDTO(null, null, true, true));
+
+        Assertions.assertEquals(1, result.content().size());
+        Assertions.assertEquals(taskId, result.content().get(0).id());
+
+        taskService.delete(taskId);
+
+        Assertions.assertTrue(taskService.search("hardware", new TaskPageRequestDTO(null, null, true, true)).content().isEmpty());
+    }
+
+    @Test
+    @DisplayName("should update and remove items by id on a task with thousands of items")
+    @Order(16)
+    void shouldUpdateAndRemoveItemsByIdOnATaskWithThousandsOfItems() {
+        TaskEntity task = new TaskEntity(
+                "Inventory",
+                "count every item in the warehouse",
+                LocalDate.now().plusDays(30)
+        );
+        for (int i = 0; i < 2000; i++)
+            task.addItem(new ItemEntity("Shelf " + i, "count shelf " + i, ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+        UUID taskId = taskService.save(task).getId();
+
+        ItemEntity item = taskService.findById(taskId).getItems().stream()
+                .filter(savedItem -> savedItem.getTitle().equals("Shelf 1000"))
+                .findFirst().orElseThrow();
+        UUID itemId = item.getId();
+
+        taskService.updateItem(taskId, new ItemEntity(itemId, "Shelf 1000", "counted", ItemPriorityEnum.Alta, ItemStateEnum.Completo), null);
+        taskService.removeItem(taskId, new ItemEntity(itemId, null, null, null, null));
+
+        TaskEntity updatedTask = taskService.findById(taskId);
+
+        Assertions.assertEquals(1999, updatedTask.getItems().size());
+        Assertions.assertTrue(updatedTask.findItem(itemId).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should bump the task version on item changes and reject stale versions")
+    @Order(17)
+    void shouldBumpTheTaskVersionOnItemChangesAndRejectStaleVersions() {
+        TaskEntity task = new TaskEntity(
+                "Garage",
+                "organize the garage",
+                LocalDate.now().plusDays(10)
+        );
+        task.addItem(new ItemEntity("Shelves", "mount the shelves", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        TaskEntity savedTask = taskService.save(task);
+        Long version = savedTask.getVersion();
+        ItemEntity item = savedTask.getItems().iterator().next();
+
+        TaskEntity updatedTask = taskService.updateItem(savedTask.getId(),
+                new ItemEntity(item.getId(), "Shelves", "mounted", ItemPriorityEnum.Media, ItemStateEnum.Completo), version);
+
+        Assertions.assertEquals(version + 1, updatedTask.getVersion());
+        Assertions.assertEquals(version + 1, taskRepository.findById(savedTask.getId()).orElseThrow().getVersion());
+
+        TaskServiceException exception = Assertions.assertThrows(TaskServiceException.class, () -> taskService.update(savedTask.getId(),
+                new TaskEntity(savedTask.getId(), "Garage v2", "organize the garage", LocalDate.now().plusDays(10)), version));
+
+        Assertions.assertEquals("Version conflict", exception.getMessage());
+        Assertions.assertEquals("Garage", taskService.findById(savedTask.getId()).getTitle());
+    }
+
+    @Test
+    @DisplayName("should return each task once when filtering by items priority or state")
+    @Order(18)
+    void shouldReturnEachTaskOnceWhenFilteringByItemsPriorityOrState() {
+        TaskEntity inventory = new TaskEntity(
+                "Inventory",
+                "count every item in the warehouse",
+                LocalDate.now().plusDays(30)
+        );
+        for (int i = 0; i < 200; i++)
+            inventory.addItem(new ItemEntity("Shelf " + i, "count shelf " + i, ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        inventory.addItem(new ItemEntity("Report", "write the report", ItemPriorityEnum.Baixa, ItemStateEnum.Completo));
+        UUID inventoryId = taskService.save(inventory).getId();
+
+        TaskEntity garage = new TaskEntity(
+                "Garage",
+                "organize the garage",
+                LocalDate.now().plusDays(10)
+        );
+        garage.addItem(new ItemEntity("Shelves", "mount the shelves", ItemPriorityEnum.Alta, ItemStateEnum.Completo));
+        UUID garageId = taskService.save(garage).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPageDTO<TaskDetailDTO> byPriority = taskService.findAllByItemsPriority(ItemPriorityEnum.Alta, new TaskPageRequestDTO(null, 50, true, true));
+
+        Assertions.assertEquals(2, byPriority.content().size());
+        Assertions.assertEquals(Set.of(inventoryId, garageId), Set.of(byPriority.content().get(0).id(), byPriority.content().get(1).id()));
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+        Assertions.assertEquals(202, byPriority.content().stream().mapToInt(task -> task.items().size()).sum());
+
+        CursorPageDTO<TaskDetailDTO> firstPage = taskService.findAllByItemsPriority(ItemPriorityEnum.Alta, new TaskPageRequestDTO(null, 1, false, false));
+        CursorPageDTO<TaskDetailDTO> secondPage = taskService.findAllByItemsPriority(ItemPriorityEnum.Alta, new TaskPageRequestDTO(firstPage.nextCursor(), 1, false, false));
+
+        Assertions.assertEquals(1, firstPage.content().size());
+        Assertions.assertEquals(1, secondPage.content().size());
+        Assertions.assertNotEquals(firstPage.content().get(0).id(), secondPage.content().get(0).id());
+        Assertions.assertNull(secondPage.nextCursor());
+
+        statistics.clear();
+        CursorPageDTO<TaskDetailDTO> matching = taskService.findAllByItemsState(ItemStateEnum.Completo, new TaskPageRequestDTO(null, 50, true, false, true));
+
+        Assertions.assertEquals(2, matching.content().size());
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, matching.content().stream()
+                .filter(task -> task.id().equals(inventoryId))
+                .findFirst().orElseThrow().items().size());
+        Assertions.assertTrue(matching.content().stream()
+                .flatMap(task -> task.items().stream())
+                .allMatch(item -> item.state() == ItemStateEnum.Completo));
+    }
+
+    @Test
+    @DisplayName("should query tasks combining title, item filters, date ranges and sort in one statement")
+    @Order(19)
+    void shouldQueryTasksCombiningTitleItemFiltersDateRangesAndSortInOneStatement() {
+        TaskEntity house = new TaskEntity("Dog's House", "build a new house for the dog", LocalDate.now().plusDays(15));
+        house.addItem(new ItemEntity("Buy Woods", "go to the lumber yard", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        house.addItem(new ItemEntity("Paint", "choose a color", ItemPriorityEnum.Baixa, ItemStateEnum.Completo));
+        UUID houseId = taskService.save(house).getId();
+
+        TaskEntity bed = new TaskEntity("Dog's Bed", "buy a bed for the dog", LocalDate.now().plusDays(40));
+        bed.addItem(new ItemEntity("Measure", "measure the dog", ItemPriorityEnum.Alta, ItemStateEnum.Completo));
+        UUID bedId = taskService.save(bed).getId();
+
+        TaskEntity garage = new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10));
+        garage.addItem(new ItemEntity("Shelves", "mount the shelves", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        UUID garageId = taskService.save(garage).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CursorPageDTO<TaskDetailDTO> pendingHighPriority = taskService.query(
+                new TaskQueryDTO("DOG", Set.of(ItemStateEnum.Pendente), Set.of(ItemPriorityEnum.Alta), null, null, null, null, null, null),
+                new TaskPageRequestDTO(null, null, false, false));
+
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, pendingHighPriority.content().size());
+        Assertions.assertEquals(houseId, pendingHighPriority.content().get(0).id());
+
+        TaskQueryDTO highPriorityByExpiry = new TaskQueryDTO(null, null, Set.of(ItemPriorityEnum.Alta), null, null, null, null,
+                TaskSortEnum.ExpiresAt, Sort.Direction.DESC);
+        CursorPageDTO<TaskDetailDTO> firstPage = taskService.query(highPriorityByExpiry, new TaskPageRequestDTO(null, 1, false, false));
+        CursorPageDTO<TaskDetailDTO> secondPage = taskService.query(highPriorityByExpiry, new TaskPageRequestDTO(firstPage.nextCursor(), 1, false, false));
+
+        Assertions.assertEquals(bedId, firstPage.content().get(0).id());
+        Assertions.assertEquals(houseId, secondPage.content().get(0).id());
+        Assertions.assertNull(secondPage.nextCursor());
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.query(new TaskQueryDTO(null, null, Set.of(ItemPriorityEnum.Alta),
+                null, null, null, null, TaskSortEnum.ExpiresAt, Sort.Direction.ASC), new TaskPageRequestDTO(firstPage.nextCursor(), 1, false, false)));
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.query(new TaskQueryDTO(null, null, Set.of(ItemPriorityEnum.Alta),
+                null, null, null, null, TaskSortEnum.CreatedAt, Sort.Direction.DESC), new TaskPageRequestDTO(firstPage.nextCursor(), 1, false, false)));
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.query(highPriorityByExpiry,
+                new TaskPageRequestDTO(new TaskCursor(LocalDate.now(), bedId).encode(), 1, false, false)));
+
+        CursorPageDTO<TaskDetailDTO> expiringSoon = taskService.query(new TaskQueryDTO(null, null, null, null, null,
+                LocalDate.now().plusDays(8), LocalDate.now().plusDays(30), TaskSortEnum.ExpiresAt, Sort.Direction.ASC
+        ), new TaskPageRequestDTO(null, null, false, false));
+
+        Assertions.assertEquals(List.of(garageId, houseId, myTaskTestId01), expiringSoon.content().stream().map(TaskDetailDTO::id).toList());
+
+        statistics.clear();
+        CursorPageDTO<TaskDetailDTO> matchingItems = taskService.query(
+                new TaskQueryDTO("dog", Set.of(ItemStateEnum.Pendente), null, null, null, null, null, null, null),
+                new TaskPageRequestDTO(null, null, true, true, true));
+
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(1, matchingItems.content().size());
+        Assertions.assertEquals(1, matchingItems.content().get(0).items().size());
+        Assertions.assertEquals("Buy Woods", matchingItems.content().get(0).items().get(0).title());
+
+        statistics.clear();
+        CursorPageDTO<TaskDetailDTO> titlePrefix = taskService.query(new TaskQueryDTO("gar", null, null, null, null, null, null, null, null),
+                new TaskPageRequestDTO(null, null, false, false));
+        CursorPageDTO<TaskDetailDTO> titleInfix = taskService.query(new TaskQueryDTO("arage", null, null, null, null, null, null, null, null),
+                new TaskPageRequestDTO(null, null, false, false));
+
+        Assertions.assertEquals(List.of(garageId), titlePrefix.content().stream().map(TaskDetailDTO::id).toList());
+        Assertions.assertTrue(titleInfix.content().isEmpty());
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+
+        Assertions.assertThrows(TaskServiceException.class, () -> taskService.query(new TaskQueryDTO(null, null, null,
+                LocalDate.now(), LocalDate.now().minusDays(1), null, null, null, null), new TaskPageRequestDTO(null, null, false, false)));
+    }
+
+    @Test
+    @DisplayName("should update the search index only after the transaction commits")
+    @Order(20)
+    void shouldUpdateTheSearchIndexOnlyAfterTheTransactionCommits() {
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.save(new TaskEntity("Aquarium", "clean the aquarium", LocalDate.now().plusDays(5)));
+
+            Assertions.assertTrue(taskSearchIndex.search("aquarium", true, 0, 10).isEmpty());
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertTrue(taskSearchIndex.search("aquarium", true, 0, 10).isEmpty());
+
+        UUID aquariumId = taskService.save(new TaskEntity("Aquarium", "clean the aquarium", LocalDate.now().plusDays(5))).getId();
+
+        Assertions.assertEquals(List.of(aquariumId), taskSearchIndex.search("aquarium", true, 0, 10));
+
+        taskService.delete(aquariumId);
+
+        Assertions.assertTrue(taskSearchIndex.search("aquarium", true, 0, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("should page through a title filter matching more tasks than one id chunk")
+    @Order(21)
+    void shouldPageThroughATitleFilterMatchingMoreTasksThanOneIdChunk() {
+        List<TaskEntity> shelves = new ArrayList<>();
+        for (int i = 0; i < 2100; i++) {
+            TaskEntity shelf = new TaskEntity(UUID.randomUUID(), "Shelf " + i, "count shelf " + i, LocalDate.now().plusDays(30));
+            shelf.setCreatedAt(LocalDate.now().minusDays(i % 7));
+            shelves.add(shelf);
+        }
+        transactionTemplate.executeWithoutResult(status -> taskBatchRepository.insertAll(shelves));
+        taskService.rebuildSearchIndex();
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            List<UUID> byTitle = queryAll(new TaskQueryDTO("shelf", null, null, null, null, null, null, TaskSortEnum.CreatedAt, direction));
+            List<UUID> all = queryAll(new TaskQueryDTO(null, null, null, null, null, null, null, TaskSortEnum.CreatedAt, direction));
+
+            Assertions.assertEquals(2100, byTitle.size());
+            Assertions.assertEquals(all.stream().filter(id -> !id.equals(myTaskTestId01) && !id.equals(myTaskTestId02)).toList(), byTitle);
+        }
+    }
+
+    private List<UUID> queryAll(TaskQueryDTO query) {
+        List<UUID> ids = new ArrayList<>();
+        String cursor = null;
+
+        do {
+            CursorPageDTO<TaskDetailDTO> page = taskService.query(query, new TaskPageRequestDTO(cursor, 500, false, false));
+            page.content().forEach(task -> ids.add(task.id()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        return ids;
+    }
 }
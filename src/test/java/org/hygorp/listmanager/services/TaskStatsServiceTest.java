@@ -0,0 +1,209 @@
+package org.hygorp.listmanager.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.records.ItemPatchDTO;
+import org.hygorp.listmanager.records.StatsDTO;
+import org.hygorp.listmanager.records.TaskStatsDTO;
+import org.hygorp.listmanager.repositories.ItemRepository;
+import org.hygorp.listmanager.repositories.LeaseRepository;
+import org.hygorp.listmanager.repositories.TaskBatchRepository;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.hygorp.listmanager.services.exceptions.TaskServiceException;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Task Stats Service Test")
+public class TaskStatsServiceTest {
+    @Autowired
+    private TaskStatsService taskStatsService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TaskBatchRepository taskBatchRepository;
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @AfterEach
+    void afterEach() {
+        deleteAll();
+        taskStatsService.rebuildCounters();
+    }
+
+    @Test
+    @DisplayName("should count the items of a task by state and priority")
+    @Order(1)
+    void shouldCountTheItemsOfATaskByStateAndPriority() {
+        TaskEntity task = new TaskEntity("Dog's House", "build a new house for the dog", LocalDate.now().plusDays(15));
+        task.addItem(new ItemEntity("Buy Woods", "go to the lumber yard", ItemPriorityEnum.Alta, ItemStateEnum.Completo));
+        task.addItem(new ItemEntity("Buy Nails", "go to the hardware store", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        task.addItem(new ItemEntity("Paint", "choose a color", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        UUID taskId = taskService.save(task).getId();
+
+        TaskStatsDTO stats = taskStatsService.stats(taskId);
+
+        Assertions.assertEquals(taskId, stats.taskId());
+        Assertions.assertFalse(stats.overdue());
+        Assertions.assertEquals(3, stats.items());
+        Assertions.assertEquals(2, stats.itemsByState().get(ItemStateEnum.Pendente));
+        Assertions.assertEquals(1, stats.itemsByState().get(ItemStateEnum.Completo));
+        Assertions.assertEquals(0, stats.itemsByState().get(ItemStateEnum.Cancelado));
+        Assertions.assertEquals(2, stats.itemsByPriority().get(ItemPriorityEnum.Media));
+        Assertions.assertThrows(TaskServiceException.class, () -> taskStatsService.stats(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("should keep the summary table equal to the grouped item counts across writes")
+    @Order(2)
+    void shouldKeepTheSummaryTableEqualToTheGroupedItemCountsAcrossWrites() {
+        TaskEntity expired = new TaskEntity(UUID.randomUUID(), "Old task", "expired yesterday", LocalDate.now().minusDays(1));
+        expired.addItem(new ItemEntity("Old item", "never done", ItemPriorityEnum.Baixa, ItemStateEnum.Cancelado));
+        expired.setCreatedAt(LocalDate.now().minusDays(10));
+        transactionTemplate.executeWithoutResult(status -> taskBatchRepository.insertAll(List.of(expired)));
+        taskStatsService.rebuildCounters();
+
+        TaskEntity task = new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10));
+        task.addItem(new ItemEntity("Shelves", "mount the shelves", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+        task.addItem(new ItemEntity("Boxes", "label the boxes", ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+        TaskEntity savedTask = taskService.save(task);
+        UUID shelves = savedTask.getItems().iterator().next().getId();
+
+        taskService.addItem(savedTask.getId(), new ItemEntity("Bike", "hang the bike", ItemPriorityEnum.Alta, ItemStateEnum.Fazendo));
+        taskService.updateItem(savedTask.getId(), new ItemEntity(shelves, "Shelves", "mounted", ItemPriorityEnum.Media, ItemStateEnum.Completo), null);
+        ItemEntity paint = itemService.addItem(savedTask.getId(), new ItemEntity("Paint", "paint the walls", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        itemService.updateItem(savedTask.getId(), paint.getId(), new ItemPatchDTO(null, null, ItemPriorityEnum.Baixa, ItemStateEnum.Fazendo), null);
+        itemService.removeItem(savedTask.getId(), shelves);
+
+        bulkImportService.importJson(new ByteArrayInputStream(("[{\"title\": \"Imported\", \"description\": \"from a file\", \"expiresAt\": \""
+                + LocalDate.now().plusDays(5) + "\", \"items\": [{\"title\": \"Step\", \"description\": \"first\", " +
+                "\"priority\": \"Alta\", \"state\": \"Completo\"}]}]").getBytes(StandardCharsets.UTF_8)));
+
+        assertCountersMatch();
+        Assertions.assertEquals(1, taskStatsService.stats().overdueTasks());
+
+        itemService.clearItems(savedTask.getId());
+        assertCountersMatch();
+
+        taskService.delete(expired.getId());
+        assertCountersMatch();
+        Assertions.assertEquals(0, taskStatsService.stats().overdueTasks());
+    }
+
+    @Test
+    @DisplayName("should read global stats in a constant number of statements")
+    @Order(3)
+    void shouldReadGlobalStatsInAConstantNumberOfStatements() {
+        TaskEntity task = new TaskEntity(UUID.randomUUID(), "Inventory", "count every shelf", LocalDate.now().plusDays(30));
+        for (int i = 0; i < 2000; i++)
+            task.addItem(new ItemEntity("Shelf " + i, "count shelf " + i, ItemPriorityEnum.Baixa, ItemStateEnum.Pendente));
+        task.setCreatedAt(LocalDate.now());
+        transactionTemplate.executeWithoutResult(status -> taskBatchRepository.insertAll(List.of(task)));
+        taskStatsService.rebuildCounters();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        StatsDTO stats = taskStatsService.stats();
+
+        Assertions.assertEquals(2000, stats.items());
+        Assertions.assertEquals(2000, stats.itemsByState().get(ItemStateEnum.Pendente));
+        Assertions.assertEquals(3, statistics.getPrepareStatementCount());
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("should rebuild the counters in place only while holding the lease")
+    @Order(4)
+    void shouldRebuildTheCountersInPlaceOnlyWhileHoldingTheLease() {
+        TaskEntity task = new TaskEntity("Garage", "clean the garage", LocalDate.now().plusDays(5));
+        task.addItem(new ItemEntity("Sweep", "sweep the floor", ItemPriorityEnum.Alta, ItemStateEnum.Pendente));
+        task.addItem(new ItemEntity("Paint", "paint the walls", ItemPriorityEnum.Media, ItemStateEnum.Fazendo));
+        taskService.save(task);
+
+        jdbcTemplate.update("UPDATE tb_item_counter SET items = 7 WHERE state = ? AND priority = ?",
+                ItemStateEnum.Pendente.name(), ItemPriorityEnum.Alta.name());
+        jdbcTemplate.update("DELETE FROM tb_item_counter WHERE state = ? AND priority = ?",
+                ItemStateEnum.Fazendo.name(), ItemPriorityEnum.Media.name());
+
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskStatsService.LEASE, "other-node", Duration.ofMinutes(1)));
+        taskStatsService.rebuildCounters();
+
+        Assertions.assertEquals(7, taskStatsService.stats().itemsByState().get(ItemStateEnum.Pendente));
+        Assertions.assertEquals(0, taskStatsService.stats().itemsByState().get(ItemStateEnum.Fazendo));
+
+        jdbcTemplate.update("UPDATE tb_lease SET expires_at = ? WHERE name = ?", LocalDate.now().minusDays(1).atStartOfDay(), TaskStatsService.LEASE);
+        taskStatsService.rebuildCounters();
+
+        assertCountersMatch();
+        Assertions.assertEquals(ItemStateEnum.values().length * ItemPriorityEnum.values().length,
+                jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tb_item_counter", Integer.class));
+        Assertions.assertTrue(leaseRepository.tryAcquire(TaskStatsService.LEASE, "other-node", Duration.ofMinutes(1)));
+        leaseRepository.release(TaskStatsService.LEASE, "other-node");
+    }
+
+    private void assertCountersMatch() {
+        StatsDTO stats = taskStatsService.stats();
+        StatsDTO expected = StatsDTO.of(taskRepository.count(), stats.overdueTasks(), itemRepository.countGroupByStateAndPriority());
+
+        Assertions.assertEquals(expected, stats);
+    }
+
+    private void deleteAll() {
+        jdbcTemplate.update("DELETE FROM tb_task_item");
+        jdbcTemplate.update("DELETE FROM tb_item");
+        jdbcTemplate.update("DELETE FROM tb_task");
+        taskSearchIndex.clear();
+    }
+}
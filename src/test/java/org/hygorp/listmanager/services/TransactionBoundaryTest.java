@@ -0,0 +1,124 @@
+package org.hygorp.listmanager.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.hygorp.listmanager.configurations.DataSourceConfigurations;
+import org.hygorp.listmanager.entities.ItemEntity;
+import org.hygorp.listmanager.entities.TaskEntity;
+import org.hygorp.listmanager.enums.ItemPriorityEnum;
+import org.hygorp.listmanager.enums.ItemStateEnum;
+import org.hygorp.listmanager.repositories.TaskRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=2",
+        "spring.datasource.hikari.connection-timeout=2000",
+        "list-manager.datasource.replica.jdbc-url=" + TransactionBoundaryTest.REPLICA_URL,
+        "list-manager.datasource.replica.username=sa",
+        "list-manager.datasource.replica.maximum-pool-size=1",
+        "list-manager.datasource.replica.connection-init-sql=SET @pool = 'replica'"
+})
+@ActiveProfiles("test")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@DisplayName("Transaction Boundary Test")
+public class TransactionBoundaryTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:test;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE";
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier(DataSourceConfigurations.WRITE_DATA_SOURCE)
+    private DataSource writeDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @AfterEach
+    void afterEach() {
+        taskRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("should run nested service calls on the caller's connection")
+    @Order(1)
+    void shouldRunNestedServiceCallsOnTheCallersConnection() throws SQLException {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        TaskEntity task;
+        try (Connection ignored = writeDataSource.getConnection()) {
+            task = new TransactionTemplate(transactionManager).execute(status -> {
+                TaskEntity savedTask = taskService.save(new TaskEntity("Dog's House", "Build a new house for the dog before winter", LocalDate.now().plusDays(15)));
+                itemService.addItem(savedTask.getId(), new ItemEntity("Buy Woods", "go to the lumber yard", ItemPriorityEnum.Media, ItemStateEnum.Pendente));
+                taskService.update(savedTask.getId(), new TaskEntity(savedTask.getId(), "Dog's new House", "Build a new house for the dog", LocalDate.now().plusDays(20)), null);
+
+                return taskService.findById(savedTask.getId());
+            });
+        }
+
+        Assertions.assertEquals(1, statistics.getSessionOpenCount());
+        Assertions.assertEquals(1, statistics.getTransactionCount());
+        Assertions.assertEquals("Dog's new House", taskService.findById(task.getId()).getTitle());
+    }
+
+    @Test
+    @DisplayName("should route read only transactions to the replica with manual flush")
+    @Order(2)
+    void shouldRouteReadOnlyTransactionsToTheReplicaWithManualFlush() {
+        UUID id = taskService.save(new TaskEntity("Garage", "organize the garage", LocalDate.now().plusDays(10))).getId();
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        readOnly.executeWithoutResult(status -> {
+            TaskEntity task = taskService.findById(id);
+            task.setTitle("Changed inside a read only transaction");
+
+            Assertions.assertEquals(FlushMode.MANUAL, entityManager.unwrap(Session.class).getHibernateFlushMode());
+            Assertions.assertEquals("replica", pool());
+        });
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                Assertions.assertNull(pool()));
+
+        Assertions.assertEquals("Garage", taskService.findById(id).getTitle());
+    }
+
+    private String pool() {
+        return jdbcTemplate.queryForObject("SELECT @pool", String.class);
+    }
+}